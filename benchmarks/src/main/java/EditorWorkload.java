@@ -0,0 +1,382 @@
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.Line2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import benchmarks.Workload;
+
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * This class implements the operations measured by the benchmarks with the editor's classes
+ * It is in the default package so it can use them; the benchmarks create it by its name
+ */
+public class EditorWorkload implements Workload {
+
+	// Drawing area
+	private static final int WIDTH = 800;
+	private static final int HEIGHT = 600;
+	// File written by the PostScript export
+	private static final String EXPORT_FILE = "Print.ps";
+	// Maximum distance between two consecutive points of the random walk
+	private static final int STEP = 10;
+	private static final int N_POINTS = 20;
+	private static final double FLATNESS = 0.5;
+	// Number of samples of each segment when measuring the tessellation error
+	private static final int ERROR_SAMPLES = 256;
+
+	private static final CubicBasis[] BASES = {CubicBasis.BEZIER, CubicBasis.B_SPLINE, CubicBasis.CATMULL_ROM};
+	// Number of control points between the first points of two consecutive segments
+	private static final int[] STEPS = {3, 1, 1};
+
+	private Polyline polyline;
+	private Panel panel;
+	private final Renderer renderer = new Renderer();
+	private final PointBuffer buffer = new PointBuffer(N_POINTS+1);
+	private final double[] px = new double[4];
+	private final double[] py = new double[4];
+
+	/* (non-Javadoc)
+	 * @see benchmarks.Workload#createPolyline(int, long)
+	 */
+	public void createPolyline(int nPoints, long seed) {
+		Random random = new Random(seed);
+		polyline = new Polyline(nPoints);
+		Point previous = new Point(random.nextInt(WIDTH), random.nextInt(HEIGHT));
+		for (int i = 1;i<nPoints;i++) {
+			Point pt = new Point(walk(previous.getX(), random, WIDTH), walk(previous.getY(), random, HEIGHT));
+			polyline.addLine(new Line(previous, pt));
+			previous = pt;
+		}
+	}
+
+	/**
+	 * Returns the next coordinate of the random walk (it bounces on the borders)
+	 * @param v current coordinate
+	 * @param random random numbers generator
+	 * @param max size of the drawing area in this coordinate
+	 * @return next coordinate
+	 */
+	private static int walk(int v, Random random, int max) {
+		v += random.nextInt(2*STEP+1) - STEP;
+		if (v < 0)
+			return -v;
+		if (v >= max)
+			return 2*(max-1) - v;
+		return v;
+	}
+
+	/* (non-Javadoc)
+	 * @see benchmarks.Workload#getWidth()
+	 */
+	public int getWidth() {
+		return WIDTH;
+	}
+
+	/* (non-Javadoc)
+	 * @see benchmarks.Workload#getHeight()
+	 */
+	public int getHeight() {
+		return HEIGHT;
+	}
+
+	/* (non-Javadoc)
+	 * @see benchmarks.Workload#getVertexCount()
+	 */
+	public int getVertexCount() {
+		return polyline.getVertexCount();
+	}
+
+	/**
+	 * Returns the number of segments of a curve family of the polyline
+	 * @param family curve family
+	 * @return number of segments
+	 */
+	private int getCurveCount(int family) {
+		int n = polyline.getControlPointCount();
+		if (n < 4)
+			return 0;
+		return family == BEZIER ? (n-1) / 3 : n-3;
+	}
+
+	/**
+	 * Stores the coordinates of the control points of a segment in px and py
+	 * @param family curve family
+	 * @param index index of the segment
+	 */
+	private void loadControlPoints(int family, int index) {
+		for (int k = 0;k<4;k++) {
+			Point pt = polyline.getControlPoint(index*STEPS[family] + k);
+			px[k] = pt.getX();
+			py[k] = pt.getY();
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see benchmarks.Workload#createCurves(int)
+	 */
+	public Object createCurves(int family) {
+		int nCurves = getCurveCount(family);
+		List<Curve> curves = new ArrayList<Curve>(nCurves);
+		for (int i = 0;i<nCurves;i++) {
+			List<Point> controlPoints = new ArrayList<Point>(4);
+			for (int k = 0;k<4;k++)
+				controlPoints.add(polyline.getControlPoint(i*STEPS[family] + k));
+			if (family == BEZIER)
+				curves.add(new BezierCurve(controlPoints, N_POINTS));
+			else if (family == B_SPLINE)
+				curves.add(new BSplineCurve(controlPoints, N_POINTS));
+			else
+				curves.add(new CatmullRomCurve(controlPoints, N_POINTS));
+		}
+		return curves;
+	}
+
+	/**
+	 * Casts the curves returned by createCurves
+	 * @param curves curves returned by createCurves
+	 * @return the curves
+	 */
+	@SuppressWarnings("unchecked")
+	private static List<Curve> asCurves(Object curves) {
+		return (List<Curve>) curves;
+	}
+
+	/* (non-Javadoc)
+	 * @see benchmarks.Workload#evaluateCurves(java.lang.Object, double)
+	 */
+	public double evaluateCurves(Object curves, double t) {
+		double sum = 0;
+		for (Curve curve : asCurves(curves))
+			sum += curve.getQFunctionX(t) + curve.getQFunctionY(t);
+		return sum;
+	}
+
+	/* (non-Javadoc)
+	 * @see benchmarks.Workload#getCurvePoints(int)
+	 */
+	public int getCurvePoints(int family) {
+		int count = 0;
+		for (Curve curve : asCurves(createCurves(family)))
+			count += curve.getPoints().size();
+		return count;
+	}
+
+	/* (non-Javadoc)
+	 * @see benchmarks.Workload#tessellateCurves(int)
+	 */
+	public int tessellateCurves(int family) {
+		int count = 0;
+		for (Curve curve : asCurves(createCurves(family))) {
+			buffer.clear();
+			curve.tessellate(buffer);
+			count += buffer.size();
+		}
+		return count;
+	}
+
+	/* (non-Javadoc)
+	 * @see benchmarks.Workload#tessellateCache(int, boolean, boolean)
+	 */
+	public int tessellateCache(int family, boolean adaptive, boolean parallel) {
+		int nCurves = getCurveCount(family);
+		CurveCache cache = new CurveCache(BASES[family], N_POINTS, FLATNESS);
+		cache.setAdaptive(adaptive);
+		cache.setParallel(parallel);
+		cache.setParallelThreshold(1);
+		cache.prepare(polyline, nCurves, STEPS[family]);
+		List<Point> controlPoints = new ArrayList<Point>(4);
+		int count = 0;
+		for (int i = 0;i<nCurves;i++) {
+			controlPoints.clear();
+			for (int k = 0;k<4;k++)
+				controlPoints.add(polyline.getControlPoint(i*STEPS[family] + k));
+			count += cache.getPoints(i, controlPoints).size();
+		}
+		return count;
+	}
+
+	/* (non-Javadoc)
+	 * @see benchmarks.Workload#getTessellationError(int, boolean)
+	 */
+	public double[] getTessellationError(int family, boolean adaptive) {
+		int nCurves = getCurveCount(family);
+		double max = 0;
+		double sum = 0;
+		int count = 0;
+		for (int i = 0;i<nCurves;i++) {
+			loadControlPoints(family, i);
+			buffer.clear();
+			if (adaptive)
+				CurveTessellator.tessellateAdaptive(BASES[family], px, py, FLATNESS, buffer);
+			else
+				CurveTessellator.tessellate(BASES[family], px, py, N_POINTS, buffer);
+			double[] bx = BASES[family].getBezierControlPoints(px[0], px[1], px[2], px[3]);
+			double[] by = BASES[family].getBezierControlPoints(py[0], py[1], py[2], py[3]);
+			for (int k = 0;k<=ERROR_SAMPLES;k++) {
+				double t = (double) k / ERROR_SAMPLES;
+				double distance = getDistance(buffer, evaluateBezier(bx, t), evaluateBezier(by, t));
+				max = Math.max(max, distance);
+				sum += distance;
+				count++;
+			}
+		}
+		return new double[] {max, count == 0 ? 0 : sum / count};
+	}
+
+	/**
+	 * Evaluates a coordinate of a Bezier segment
+	 * @param b coordinate of the four Bezier control points
+	 * @param t value of t
+	 * @return coordinate of the segment at t
+	 */
+	private static double evaluateBezier(double[] b, double t) {
+		double s = 1 - t;
+		return s*s*s*b[0] + 3*s*s*t*b[1] + 3*s*t*t*b[2] + t*t*t*b[3];
+	}
+
+	/**
+	 * Returns the distance between a point and the lines joining the points of a buffer
+	 * @param points points of the lines
+	 * @param x x coordinate of the point
+	 * @param y y coordinate of the point
+	 * @return distance to the nearest line
+	 */
+	private static double getDistance(PointBuffer points, double x, double y) {
+		int[] xs = points.getXs();
+		int[] ys = points.getYs();
+		double min = Double.MAX_VALUE;
+		for (int k = 1;k<points.size();k++)
+			min = Math.min(min, Line2D.ptSegDist(xs[k-1], ys[k-1], xs[k], ys[k], x, y));
+		return min;
+	}
+
+	/* (non-Javadoc)
+	 * @see benchmarks.Workload#blend(int, int, boolean)
+	 */
+	public int blend(int family, int nPoints, boolean vector) {
+		BlendingTable table = BASES[family].getBlendingTable(nPoints);
+		BlendingKernel kernel = vector ? VectorKernel.INSTANCE : new BlendingTable.ScalarKernel();
+		int nCurves = getCurveCount(family);
+		int count = 0;
+		for (int i = 0;i<nCurves;i++) {
+			loadControlPoints(family, i);
+			buffer.clear();
+			table.blend(kernel, px, py, buffer);
+			count += buffer.size();
+		}
+		return count;
+	}
+
+	/* (non-Javadoc)
+	 * @see benchmarks.Workload#isVectorAvailable()
+	 */
+	public boolean isVectorAvailable() {
+		return VectorKernel.INSTANCE != null;
+	}
+
+	/* (non-Javadoc)
+	 * @see benchmarks.Workload#getLineWithPoint(int, int, int)
+	 */
+	public Object getLineWithPoint(int x, int y, int radius) {
+		return polyline.getLineWithPoint(x, y, radius);
+	}
+
+	/* (non-Javadoc)
+	 * @see benchmarks.Workload#getNeighbor(int, int)
+	 */
+	public Object getNeighbor(int vertex, int radius) {
+		return polyline.getNeighbor(polyline.getVertex(vertex), radius);
+	}
+
+	/* (non-Javadoc)
+	 * @see benchmarks.Workload#createPanel(boolean, int)
+	 */
+	public void createPanel(boolean parallel, int curveMode) {
+		panel = new Panel(null);
+		panel.setSize(WIDTH, HEIGHT);
+		panel.setCurvesVisibility(true, true, true);
+		panel.setCurvesDrawing(curveMode == ADAPTIVE, curveMode == CUBIC);
+		if (parallel)
+			panel.changeParallelTessellation();
+	}
+
+	/* (non-Javadoc)
+	 * @see benchmarks.Workload#paint(java.awt.image.BufferedImage)
+	 */
+	public void paint(BufferedImage image) {
+		panel.setPolyline(polyline);
+		Graphics2D g = image.createGraphics();
+		g.setClip(0, 0, WIDTH, HEIGHT);
+		panel.paintComponent(g);
+		g.dispose();
+	}
+
+	/* (non-Javadoc)
+	 * @see benchmarks.Workload#drawPolyline(java.awt.image.BufferedImage, boolean)
+	 */
+	public void drawPolyline(BufferedImage image, boolean batched) {
+		Graphics2D g = image.createGraphics();
+		g.setClip(0, 0, WIDTH, HEIGHT);
+		if (batched) {
+			renderer.drawPolyline(g, polyline);
+			renderer.drawMarkers(g, polyline);
+		} else {
+			// As the panel drew it before the lines were batched into paths
+			g.setColor(new Color(255, 255, 0));
+			for (int i = 0;i<polyline.getLineCount();i++) {
+				Point initialPoint = polyline.getControlPoint(i);
+				Point finalPoint = polyline.getControlPoint(i+1);
+				g.drawLine(initialPoint.getX(), initialPoint.getY(), finalPoint.getX(), finalPoint.getY());
+			}
+			g.setColor(new Color(0, 0, 0));
+			for (int i = 0;i<polyline.getVertexCount();i++) {
+				Point pt = polyline.getVertex(i);
+				int x = pt.getX(), y = pt.getY();
+				g.drawLine(x - Renderer.CROSS_WIDTH, y - Renderer.CROSS_WIDTH, x + Renderer.CROSS_WIDTH, y + Renderer.CROSS_WIDTH);
+				g.drawLine(x - Renderer.CROSS_WIDTH, y + Renderer.CROSS_WIDTH, x + Renderer.CROSS_WIDTH, y - Renderer.CROSS_WIDTH);
+			}
+		}
+		g.dispose();
+	}
+
+	/* (non-Javadoc)
+	 * @see benchmarks.Workload#printToPostScript(int)
+	 */
+	public void printToPostScript(int encoding) throws IOException {
+		int postScriptEncoding = PostScriptExporter.PLAIN;
+		if (encoding == COMPACT)
+			postScriptEncoding = PostScriptExporter.COMPACT;
+		else if (encoding == COMPRESSED)
+			postScriptEncoding = PostScriptExporter.COMPRESSED;
+		new DrawingExport(polyline, new PageTransform(0, 0, WIDTH, HEIGHT), true, true, false, false)
+				.exportToFiles(Collections.singletonList(new File(EXPORT_FILE)), postScriptEncoding, null);
+	}
+
+	/**
+	 * This class loads the Vector API kernel when it is first used
+	 */
+	private static class VectorKernel {
+		private static final BlendingKernel INSTANCE = load();
+
+		/**
+		 * Loads the Vector API kernel
+		 * @return the Vector API kernel; null if it isn't available
+		 */
+		private static BlendingKernel load() {
+			try {
+				return (BlendingKernel) Class.forName("VectorBlendingKernel").getDeclaredConstructor().newInstance();
+			} catch (Exception e) {
+				return null;
+			} catch (LinkageError e) {
+				return null;
+			}
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * Benchmarks of the curve classes (BezierCurve, BSplineCurve and CatmullRomCurve): creating
+ * a curve for every segment of a polyline, evaluating them and getting their points
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurveBenchmark {
+
+	@Param({Workloads.SMALL, Workloads.LARGE})
+	public int size;
+
+	@Param({"BEZIER", "B_SPLINE", "CATMULL_ROM"})
+	public String family;
+
+	private Workload workload;
+	private int curveFamily;
+	private Object curves;
+
+	@Setup
+	public void setUp() {
+		workload = Workloads.create(size);
+		curveFamily = Workloads.getFamily(family);
+		curves = workload.createCurves(curveFamily);
+	}
+
+	/**
+	 * Creates a curve for each segment
+	 */
+	@Benchmark
+	public Object construct() {
+		return workload.createCurves(curveFamily);
+	}
+
+	/**
+	 * Evaluates getQFunctionX and getQFunctionY of each segment
+	 */
+	@Benchmark
+	public double evaluate() {
+		return workload.evaluateCurves(curves, 0.37);
+	}
+
+	/**
+	 * Creates a curve for each segment and gets its points as a list of points
+	 */
+	@Benchmark
+	public int pointsAsList() {
+		return workload.getCurvePoints(curveFamily);
+	}
+
+	/**
+	 * Creates a curve for each segment and tessellates it into a reused point buffer
+	 */
+	@Benchmark
+	public int pointsInBuffer() {
+		return workload.tessellateCurves(curveFamily);
+	}
+}
@@ -0,0 +1,54 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * Benchmark of the PostScript export (DrawingExport) of the polyline and its Bezier curves,
+ * with each PostScript encoding (it writes Print.ps in the working directory)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExportBenchmark {
+
+	@Param({Workloads.SMALL, Workloads.LARGE})
+	public int size;
+
+	@Param({"PLAIN", "COMPACT", "COMPRESSED"})
+	public String encoding;
+
+	private Workload workload;
+	private int encodingValue;
+
+	@Setup
+	public void setUp() {
+		workload = Workloads.create(size);
+		encodingValue = Workloads.getEncoding(encoding);
+	}
+
+	/**
+	 * Prints the whole drawing to PostScript
+	 */
+	@Benchmark
+	public void printToFile() throws IOException {
+		workload.printToPostScript(encodingValue);
+	}
+}
@@ -0,0 +1,58 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * Benchmarks of the blending kernels (scalar and Vector API) with blending tables of
+ * several sizes. The vector kernel needs the editor built with the vector profile
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class KernelBenchmark {
+
+	@Param({Workloads.LARGE})
+	public int size;
+
+	@Param({"20", "64", "256"})
+	public int nPoints;
+
+	@Param({"scalar", "vector"})
+	public String kernel;
+
+	private Workload workload;
+	private boolean vector;
+
+	@Setup
+	public void setUp() {
+		workload = Workloads.create(size);
+		vector = kernel.equals("vector");
+		if (vector && !workload.isVectorAvailable())
+			throw new IllegalStateException("The Vector API kernel isn't available");
+	}
+
+	/**
+	 * Blends every B-Spline segment
+	 */
+	@Benchmark
+	public int blend() {
+		return workload.blend(Workload.B_SPLINE, nPoints, vector);
+	}
+}
@@ -0,0 +1,60 @@
+package benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * Benchmark of a full, headless, Panel.paintComponent into a BufferedImage, with the
+ * polyline and every curve family visible and nothing cached, with the curves tessellated
+ * with a fixed number of points, tessellated adaptively or drawn as Java2D cubic curves
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PaintBenchmark {
+
+	@Param({Workloads.SMALL, Workloads.LARGE})
+	public int size;
+
+	@Param({"false", "true"})
+	public boolean parallel;
+
+	@Param({"FIXED", "ADAPTIVE", "CUBIC"})
+	public String curves;
+
+	private Workload workload;
+	private BufferedImage image;
+
+	@Setup
+	public void setUp() {
+		workload = Workloads.create(size);
+		workload.createPanel(parallel, Workloads.getCurveMode(curves));
+		image = new BufferedImage(workload.getWidth(), workload.getHeight(), BufferedImage.TYPE_INT_RGB);
+	}
+
+	/**
+	 * Draws the whole panel
+	 */
+	@Benchmark
+	public BufferedImage paint() {
+		workload.paint(image);
+		return image;
+	}
+}
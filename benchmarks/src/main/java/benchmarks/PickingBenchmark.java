@@ -0,0 +1,78 @@
+package benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * Benchmarks of picking and snapping: Polyline.getLineWithPoint at random positions and
+ * Polyline.getNeighbor of random points of the polyline
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PickingBenchmark {
+
+	// Radius used by the editor to pick points
+	private static final int RADIUS = 4;
+	// Number of precomputed queries (a power of 2)
+	private static final int QUERIES = 1024;
+
+	@Param({Workloads.SMALL, Workloads.LARGE})
+	public int size;
+
+	private Workload workload;
+	private int[] xs;
+	private int[] ys;
+	private int[] vertices;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		workload = Workloads.create(size);
+		Random random = new Random(7);
+		xs = new int[QUERIES];
+		ys = new int[QUERIES];
+		vertices = new int[QUERIES];
+		for (int i = 0;i<QUERIES;i++) {
+			xs[i] = random.nextInt(workload.getWidth());
+			ys[i] = random.nextInt(workload.getHeight());
+			vertices[i] = random.nextInt(workload.getVertexCount());
+		}
+		next = 0;
+	}
+
+	/**
+	 * Finds the line with a point near a random position
+	 */
+	@Benchmark
+	public Object getLineWithPoint() {
+		int i = next++ & (QUERIES-1);
+		return workload.getLineWithPoint(xs[i], ys[i], RADIUS);
+	}
+
+	/**
+	 * Finds a neighbor of a random point of the polyline
+	 */
+	@Benchmark
+	public Object getNeighbor() {
+		int i = next++ & (QUERIES-1);
+		return workload.getNeighbor(vertices[i], RADIUS);
+	}
+}
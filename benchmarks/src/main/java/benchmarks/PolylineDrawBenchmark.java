@@ -0,0 +1,55 @@
+package benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * Benchmark of the drawing of the polyline and its crosses into a BufferedImage, with a
+ * drawLine call for each line (as the panel drew it before) or with a path for each color
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PolylineDrawBenchmark {
+
+	@Param({Workloads.SMALL, "10000"})
+	public int size;
+
+	@Param({"false", "true"})
+	public boolean batched;
+
+	private Workload workload;
+	private BufferedImage image;
+
+	@Setup
+	public void setUp() {
+		workload = Workloads.create(size);
+		image = new BufferedImage(workload.getWidth(), workload.getHeight(), BufferedImage.TYPE_INT_RGB);
+	}
+
+	/**
+	 * Draws the polyline and its crosses
+	 */
+	@Benchmark
+	public BufferedImage draw() {
+		workload.drawPolyline(image, batched);
+		return image;
+	}
+}
@@ -0,0 +1,59 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * Benchmarks of the tessellation of every segment of a curve family through the curve
+ * cache: uniform or adaptive, serial or in parallel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TessellationBenchmark {
+
+	@Param({Workloads.SMALL, Workloads.LARGE})
+	public int size;
+
+	@Param({"BEZIER", "B_SPLINE", "CATMULL_ROM"})
+	public String family;
+
+	@Param({"false", "true"})
+	public boolean adaptive;
+
+	@Param({"false", "true"})
+	public boolean parallel;
+
+	private Workload workload;
+	private int curveFamily;
+
+	@Setup
+	public void setUp() {
+		workload = Workloads.create(size);
+		curveFamily = Workloads.getFamily(family);
+	}
+
+	/**
+	 * Tessellates every segment with an empty cache
+	 */
+	@Benchmark
+	public int tessellate() {
+		return workload.tessellateCache(curveFamily, adaptive, parallel);
+	}
+}
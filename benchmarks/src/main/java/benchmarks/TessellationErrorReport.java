@@ -0,0 +1,29 @@
+package benchmarks;
+
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * This class reports how far the drawn curves are from the exact curves, for each curve
+ * family and drawing mode (PaintBenchmark measures the time of the same modes)
+ * The Java2D cubic curves are exact Bezier conversions of the segments, flattened by
+ * Java2D at sub-pixel precision, so only the tessellated modes are measured
+ *
+ * java -cp benchmarks/target/benchmarks.jar benchmarks.TessellationErrorReport [points]
+ */
+public class TessellationErrorReport {
+
+	private static final String[] FAMILIES = {"Bezier", "B-Spline", "Catmull-Rom"};
+
+	public static void main(String[] args) {
+		int nPoints = args.length > 0 ? Integer.parseInt(args[0]) : Integer.parseInt(Workloads.SMALL);
+		Workload workload = Workloads.create(nPoints);
+		System.out.printf("%-12s %-9s %10s %10s%n", "curve", "mode", "max (px)", "mean (px)");
+		for (int family = 0;family<FAMILIES.length;family++) {
+			for (int mode = Workload.FIXED;mode<=Workload.ADAPTIVE;mode++) {
+				double[] error = workload.getTessellationError(family, mode == Workload.ADAPTIVE);
+				System.out.printf("%-12s %-9s %10.3f %10.3f%n", FAMILIES[family],
+						mode == Workload.ADAPTIVE ? "ADAPTIVE" : "FIXED", error[0], error[1]);
+			}
+		}
+	}
+}
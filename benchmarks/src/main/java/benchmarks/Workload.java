@@ -0,0 +1,162 @@
+package benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * This interface represents the operations of the editor measured by the benchmarks
+ * The editor's classes are in the default package, which can't be used from a named
+ * package (and JMH doesn't accept benchmarks in the default package), so the benchmarks
+ * only use the editor through this interface, implemented by EditorWorkload
+ */
+public interface Workload {
+
+	// Curve families
+	int BEZIER = 0;
+	int B_SPLINE = 1;
+	int CATMULL_ROM = 2;
+
+	// Curve drawing modes
+	int FIXED = 0;
+	int ADAPTIVE = 1;
+	int CUBIC = 2;
+
+	// PostScript encodings
+	int PLAIN = 0;
+	int COMPACT = 1;
+	int COMPRESSED = 2;
+
+	/**
+	 * Creates a random polyline (a random walk inside the drawing area)
+	 * @param nPoints number of control points
+	 * @param seed seed of the random walk
+	 */
+	void createPolyline(int nPoints, long seed);
+
+	/**
+	 * Returns the width of the drawing area
+	 * @return width of the drawing area
+	 */
+	int getWidth();
+
+	/**
+	 * Returns the height of the drawing area
+	 * @return height of the drawing area
+	 */
+	int getHeight();
+
+	/**
+	 * Returns the number of distinct points of the polyline
+	 * @return number of distinct points
+	 */
+	int getVertexCount();
+
+	/**
+	 * Creates a curve object for each segment of a curve family of the polyline
+	 * @param family curve family
+	 * @return the created curves
+	 */
+	Object createCurves(int family);
+
+	/**
+	 * Evaluates the x and y functions of every curve created by createCurves
+	 * @param curves curves returned by createCurves
+	 * @param t value of t
+	 * @return sum of the values (so the evaluation isn't removed as dead code)
+	 */
+	double evaluateCurves(Object curves, double t);
+
+	/**
+	 * Creates a curve object for each segment of a curve family and gets its points as a list of points
+	 * @param family curve family
+	 * @return number of created points
+	 */
+	int getCurvePoints(int family);
+
+	/**
+	 * Creates a curve object for each segment of a curve family and tessellates it into a reused point buffer
+	 * @param family curve family
+	 * @return number of created points
+	 */
+	int tessellateCurves(int family);
+
+	/**
+	 * Tessellates every segment of a curve family with an empty curve cache
+	 * @param family curve family
+	 * @param adaptive if the segments are tessellated adaptively
+	 * @param parallel if the segments are tessellated in parallel
+	 * @return number of created points
+	 */
+	int tessellateCache(int family, boolean adaptive, boolean parallel);
+
+	/**
+	 * Measures how far the tessellation of a curve family is from the exact curve
+	 * (each segment is sampled densely and every sample is compared with the drawn lines)
+	 * @param family curve family
+	 * @param adaptive if the segments are tessellated adaptively (false for the fixed number of points)
+	 * @return maximum and mean distance, in pixels
+	 */
+	double[] getTessellationError(int family, boolean adaptive);
+
+	/**
+	 * Blends every segment of a curve family with a blending table
+	 * @param family curve family
+	 * @param nPoints number of steps of the blending table
+	 * @param vector if the Vector API kernel is used (false for the scalar kernel)
+	 * @return number of created points
+	 */
+	int blend(int family, int nPoints, boolean vector);
+
+	/**
+	 * Returns if the Vector API kernel is available
+	 * @return true if the Vector API kernel is available; false otherwise
+	 */
+	boolean isVectorAvailable();
+
+	/**
+	 * Finds the line with a point near x, y
+	 * @param x x coordinate
+	 * @param y y coordinate
+	 * @param radius radius of the neighborhood
+	 * @return the line found; null if there's none
+	 */
+	Object getLineWithPoint(int x, int y, int radius);
+
+	/**
+	 * Finds a neighbor of a point of the polyline
+	 * @param vertex index of the distinct point
+	 * @param radius radius of the neighborhood
+	 * @return the neighbor found; null if there's none
+	 */
+	Object getNeighbor(int vertex, int radius);
+
+	/**
+	 * Prepares a panel (without a frame) showing the polyline and every curve family
+	 * @param parallel if the panel tessellates in parallel
+	 * @param curveMode how the curves are drawn (FIXED, ADAPTIVE or CUBIC)
+	 */
+	void createPanel(boolean parallel, int curveMode);
+
+	/**
+	 * Draws the whole panel from scratch (nothing cached) into an image
+	 * @param image image in which the panel will be drawn
+	 */
+	void paint(BufferedImage image);
+
+	/**
+	 * Draws the polyline and the crosses of its points into an image
+	 * @param image image in which the polyline will be drawn
+	 * @param batched if the lines of each color are drawn at once as a path (false to draw each
+	 *                line with its own drawLine call)
+	 */
+	void drawPolyline(BufferedImage image, boolean batched);
+
+	/**
+	 * Prints the whole polyline and its Bezier curves to PostScript
+	 * @param encoding encoding of the PostScript (PLAIN, COMPACT or COMPRESSED)
+	 * @throws IOException if the file can't be written
+	 */
+	void printToPostScript(int encoding) throws IOException;
+}
@@ -0,0 +1,79 @@
+package benchmarks;
+
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * This class creates the workload used by the benchmarks
+ */
+public final class Workloads {
+
+	// Sizes of the polylines used by default (-p size=... to change them)
+	public static final String SMALL = "1000";
+	public static final String LARGE = "100000";
+
+	/**
+	 * This class only has static methods
+	 */
+	private Workloads() {
+	}
+
+	/**
+	 * Creates the workload (EditorWorkload, in the default package) with a random polyline
+	 * @param nPoints number of control points of the polyline
+	 * @return the created workload
+	 */
+	public static Workload create(int nPoints) {
+		try {
+			Workload workload = (Workload) Class.forName("EditorWorkload").getDeclaredConstructor().newInstance();
+			workload.createPolyline(nPoints, 42);
+			return workload;
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Could not create the workload", e);
+		}
+	}
+
+	/**
+	 * Returns the curve family with a given name
+	 * @param name name of the curve family (BEZIER, B_SPLINE or CATMULL_ROM)
+	 * @return the curve family
+	 */
+	public static int getFamily(String name) {
+		if (name.equals("BEZIER"))
+			return Workload.BEZIER;
+		if (name.equals("B_SPLINE"))
+			return Workload.B_SPLINE;
+		if (name.equals("CATMULL_ROM"))
+			return Workload.CATMULL_ROM;
+		throw new IllegalArgumentException("Unknown curve family " + name);
+	}
+
+	/**
+	 * Returns the curve drawing mode with a given name
+	 * @param name name of the mode (FIXED, ADAPTIVE or CUBIC)
+	 * @return the curve drawing mode
+	 */
+	public static int getCurveMode(String name) {
+		if (name.equals("FIXED"))
+			return Workload.FIXED;
+		if (name.equals("ADAPTIVE"))
+			return Workload.ADAPTIVE;
+		if (name.equals("CUBIC"))
+			return Workload.CUBIC;
+		throw new IllegalArgumentException("Unknown curve drawing mode " + name);
+	}
+
+	/**
+	 * Returns the PostScript encoding with a given name
+	 * @param name name of the encoding (PLAIN, COMPACT or COMPRESSED)
+	 * @return the PostScript encoding
+	 */
+	public static int getEncoding(String name) {
+		if (name.equals("PLAIN"))
+			return Workload.PLAIN;
+		if (name.equals("COMPACT"))
+			return Workload.COMPACT;
+		if (name.equals("COMPRESSED"))
+			return Workload.COMPRESSED;
+		throw new IllegalArgumentException("Unknown PostScript encoding " + name);
+	}
+}
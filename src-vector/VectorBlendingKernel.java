@@ -0,0 +1,72 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * This class blends the control points of a curve segment using the Vector API, so
+ * several samples are computed by each instruction
+ * It needs the jdk.incubator.vector module (--add-modules jdk.incubator.vector); it is
+ * loaded by BlendingTable only when the module is available
+ *
+ * The coordinates are blended as doubles and only then truncated to int by a plain loop,
+ * because the JDK 17 compiler doesn't turn the vector double to int conversion into
+ * vector instructions (it was several times slower than the scalar kernel)
+ */
+public class VectorBlendingKernel implements BlendingKernel {
+
+	private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+	// Blended coordinates before being truncated (one array per thread, as the kernel is shared)
+	private static final ThreadLocal<double[]> SCRATCH = new ThreadLocal<double[]>() {
+		protected double[] initialValue() {
+			return new double[64];
+		}
+	};
+
+	/* (non-Javadoc)
+	 * @see BlendingKernel#blend(double[], double[], double[], double[], int, double[], double[], int[], int[], int)
+	 */
+	public void blend(double[] w0, double[] w1, double[] w2, double[] w3, int count,
+			double[] px, double[] py, int[] xs, int[] ys, int offset) {
+		double[] values = SCRATCH.get();
+		if (values.length < count) {
+			values = new double[Math.max(count, values.length*2)];
+			SCRATCH.set(values);
+		}
+		blend(w0, w1, w2, w3, count, px, values);
+		for (int i = 0;i<count;i++)
+			xs[offset + i] = (int)values[i];
+		blend(w0, w1, w2, w3, count, py, values);
+		for (int i = 0;i<count;i++)
+			ys[offset + i] = (int)values[i];
+	}
+
+	/**
+	 * Blends one coordinate of four control points
+	 * @param w0 blending function 0 value of each sample
+	 * @param w1 blending function 1 value of each sample
+	 * @param w2 blending function 2 value of each sample
+	 * @param w3 blending function 3 value of each sample
+	 * @param count number of samples
+	 * @param p coordinate of the four control points
+	 * @param values array where the blended coordinates will be stored
+	 */
+	private static void blend(double[] w0, double[] w1, double[] w2, double[] w3, int count,
+			double[] p, double[] values) {
+		double p0 = p[0], p1 = p[1], p2 = p[2], p3 = p[3];
+		int i = 0;
+		int upperBound = SPECIES.loopBound(count);
+		for (;i<upperBound;i += SPECIES.length()) {
+			// Same operations, in the same order, as the scalar kernel (no fused multiply-add)
+			DoubleVector.fromArray(SPECIES, w0, i).mul(p0)
+					.add(DoubleVector.fromArray(SPECIES, w1, i).mul(p1))
+					.add(DoubleVector.fromArray(SPECIES, w2, i).mul(p2))
+					.add(DoubleVector.fromArray(SPECIES, w3, i).mul(p3))
+					.intoArray(values, i);
+		}
+		// Remaining samples
+		for (;i<count;i++)
+			values[i] = p0*w0[i] + p1*w1[i] + p2*w2[i] + p3*w3[i];
+	}
+}
@@ -0,0 +1,126 @@
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * This class represents an output stream that encodes the written bytes in ASCII85, as
+ * decoded by the ASCII85Decode filter of PostScript and PDF
+ * Each 4 bytes are written as 5 characters from ! to u (z if the 4 bytes are 0); finish()
+ * writes the last bytes and the end of data mark (~>)
+ */
+public class ASCII85OutputStream extends FilterOutputStream {
+
+	// Maximum number of characters in a line
+	private static final int LINE_LENGTH = 76;
+	// Size of the buffer of encoded characters
+	private static final int BUFFER_SIZE = 8192;
+
+	// Bytes of the group being encoded
+	private int group;
+	private int count;
+	private int column;
+	private boolean finished;
+	// Encoded characters not written yet (with room for a group and a new line)
+	private final byte[] buffer = new byte[BUFFER_SIZE + 6];
+	private int length;
+
+	/**
+	 * Constructs an ASCII85 output stream
+	 * @param out stream where the encoded characters are written
+	 */
+	public ASCII85OutputStream(OutputStream out) {
+		super(out);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.FilterOutputStream#write(int)
+	 */
+	public void write(int b) throws IOException {
+		group |= (b & 0xFF) << (24 - 8*count);
+		if (++count == 4) {
+			encodeGroup(4);
+			group = 0;
+			count = 0;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.FilterOutputStream#write(byte[], int, int)
+	 */
+	public void write(byte[] b, int off, int len) throws IOException {
+		for (int i = off;i<off+len;i++)
+			write(b[i]);
+	}
+
+	/**
+	 * Writes the characters of the group
+	 * @param n number of bytes of the group (the missing ones are 0)
+	 * @throws IOException
+	 */
+	private void encodeGroup(int n) throws IOException {
+		int n85;
+		if (n == 4 && group == 0) {
+			buffer[length] = 'z';
+			n85 = 1;
+		} else {
+			long value = group & 0xFFFFFFFFL;
+			for (int i = 4;i>=0;i--) {
+				buffer[length + i] = (byte) ('!' + value % 85);
+				value /= 85;
+			}
+			// A group of n bytes only needs its first n+1 characters
+			n85 = n+1;
+		}
+		length += n85;
+		column += n85;
+		// The lines are broken (the decoder ignores the new lines)
+		if (column >= LINE_LENGTH) {
+			buffer[length++] = '\n';
+			column = 0;
+		}
+		if (length >= BUFFER_SIZE)
+			flushBuffer();
+	}
+
+	/**
+	 * Writes the encoded characters in the buffer
+	 * @throws IOException
+	 */
+	private void flushBuffer() throws IOException {
+		out.write(buffer, 0, length);
+		length = 0;
+	}
+
+	/**
+	 * Writes the last bytes and the end of data mark, without closing the stream
+	 * @throws IOException
+	 */
+	public void finish() throws IOException {
+		if (finished)
+			return;
+		if (count > 0)
+			encodeGroup(count);
+		buffer[length++] = '~';
+		buffer[length++] = '>';
+		flushBuffer();
+		finished = true;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.FilterOutputStream#flush()
+	 */
+	public void flush() throws IOException {
+		flushBuffer();
+		super.flush();
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.FilterOutputStream#close()
+	 */
+	public void close() throws IOException {
+		finish();
+		super.close();
+	}
+}
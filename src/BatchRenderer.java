@@ -0,0 +1,310 @@
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.imageio.ImageIO;
+
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * This class converts control points files (see ControlPointsFile) to PNG images,
+ * PostScript, SVG and PDF without a display (it doesn't use the frame nor the panel)
+ * The files are converted in parallel, each one by its own renderer
+ */
+public class BatchRenderer {
+
+	// Exit codes
+	private static final int OK = 0;
+	private static final int FAILED = 1;
+	private static final int USAGE = 2;
+
+	// Maximum number of pixels of a PNG image (4 bytes each)
+	private static final long MAX_IMAGE_PIXELS = 100000000;
+
+	private static final String USAGE_TEXT =
+			"Usage: java -jar curves-editor.jar --batch [options] file|directory...\n"
+			+ "  A directory is converted with its .txt and .csv files (not its converted files)\n"
+			+ "  -o, --output dir   directory of the converted files (default: the directory of each file)\n"
+			+ "  --png              writes a PNG image of each file\n"
+			+ "  --ps               writes the PostScript of each file (polyline and curves)\n"
+			+ "  --svg              writes the SVG of each file (polyline and curves)\n"
+			+ "  --pdf              writes the PDF of each file (polyline and curves)\n"
+			+ "                     (default: PNG and PostScript; the vector formats are written in the same walk)\n"
+			+ "  --ps-encoding e    encoding of the PostScript: plain, compact or compressed (default: plain)\n"
+			+ "  --curves list      curves to convert: bezier,bspline,catmullrom or none (default: all)\n"
+			+ "  --adaptive         tessellates the curves adaptively\n"
+			+ "  --cubic            draws the curves as Java2D cubic curves (not tessellated)\n"
+			+ "  -t, --threads n    number of files converted at the same time (default: number of processors)";
+
+	private File outputDirectory;
+	private boolean png;
+	// Vector formats (see DrawingExport.FORMATS)
+	private final List<String> formats = new ArrayList<String>();
+	private boolean bezier = true;
+	private boolean bSpline = true;
+	private boolean catmullRom = true;
+	private int postScriptEncoding = PostScriptExporter.PLAIN;
+	private boolean adaptive;
+	private boolean cubic;
+	private int threads = Runtime.getRuntime().availableProcessors();
+	private final List<File> files = new ArrayList<File>();
+
+	/**
+	 * Converts the files given in the command line
+	 * @param args options and files (or directories with files) to convert
+	 * @return exit code (0 if every file was converted)
+	 */
+	public static int run(String[] args) {
+		BatchRenderer batch = new BatchRenderer();
+		try {
+			batch.parseArguments(args);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.println(USAGE_TEXT);
+			return USAGE;
+		}
+		return batch.convertAll();
+	}
+
+	/**
+	 * Reads the options and the files to convert
+	 * @param args command line arguments
+	 * @throws IllegalArgumentException if an argument is invalid
+	 */
+	private void parseArguments(String[] args) {
+		for (int i = 0;i<args.length;i++) {
+			String arg = args[i];
+			if (arg.equals("-o") || arg.equals("--output"))
+				outputDirectory = new File(getValue(args, ++i, arg));
+			else if (arg.equals("--png"))
+				png = true;
+			else if (arg.equals("--ps") || arg.equals("--svg") || arg.equals("--pdf")) {
+				if (!formats.contains(arg.substring(2)))
+					formats.add(arg.substring(2));
+			}
+			else if (arg.equals("--ps-encoding"))
+				parseEncoding(getValue(args, ++i, arg));
+			else if (arg.equals("--curves"))
+				parseCurves(getValue(args, ++i, arg));
+			else if (arg.equals("--adaptive"))
+				adaptive = true;
+			else if (arg.equals("--cubic"))
+				cubic = true;
+			else if (arg.equals("-t") || arg.equals("--threads")) {
+				try {
+					threads = Integer.parseInt(getValue(args, ++i, arg));
+				} catch (NumberFormatException e) {
+					threads = 0;
+				}
+				if (threads < 1)
+					throw new IllegalArgumentException("Invalid number of threads");
+			} else if (arg.startsWith("-"))
+				throw new IllegalArgumentException("Unknown option " + arg);
+			else
+				addInput(new File(arg));
+		}
+		if (files.isEmpty())
+			throw new IllegalArgumentException("No files to convert");
+		if (!png && formats.isEmpty()) {
+			png = true;
+			formats.add("ps");
+		}
+		if (outputDirectory != null && !outputDirectory.isDirectory() && !outputDirectory.mkdirs())
+			throw new IllegalArgumentException("Can't create the directory " + outputDirectory);
+	}
+
+	/**
+	 * Returns the value of an option
+	 * @param args command line arguments
+	 * @param i position of the value
+	 * @param option name of the option
+	 * @return value of the option
+	 * @throws IllegalArgumentException if there's no value
+	 */
+	private static String getValue(String[] args, int i, String option) {
+		if (i >= args.length)
+			throw new IllegalArgumentException("Missing value of " + option);
+		return args[i];
+	}
+
+	/**
+	 * Reads the encoding of the PostScript
+	 * @param name name of the encoding (plain, compact or compressed)
+	 * @throws IllegalArgumentException if the name is invalid
+	 */
+	private void parseEncoding(String name) {
+		if (name.equals("plain"))
+			postScriptEncoding = PostScriptExporter.PLAIN;
+		else if (name.equals("compact"))
+			postScriptEncoding = PostScriptExporter.COMPACT;
+		else if (name.equals("compressed"))
+			postScriptEncoding = PostScriptExporter.COMPRESSED;
+		else
+			throw new IllegalArgumentException("Unknown PostScript encoding " + name);
+	}
+
+	/**
+	 * Reads which curves are drawn in the images
+	 * @param list comma separated curve names (or none)
+	 * @throws IllegalArgumentException if a curve name is invalid
+	 */
+	private void parseCurves(String list) {
+		bezier = false;
+		bSpline = false;
+		catmullRom = false;
+		for (String name : list.split(",")) {
+			if (name.equals("bezier"))
+				bezier = true;
+			else if (name.equals("bspline"))
+				bSpline = true;
+			else if (name.equals("catmullrom"))
+				catmullRom = true;
+			else if (!name.equals("none"))
+				throw new IllegalArgumentException("Unknown curve " + name);
+		}
+	}
+
+	/**
+	 * Adds a file to convert (or the control points files of a directory)
+	 * Only the extensions of control points files are taken from a directory, so its converted
+	 * files (e.g. of a previous run) aren't converted again
+	 * @param input file or directory
+	 * @throws IllegalArgumentException if the file doesn't exist
+	 */
+	private void addInput(File input) {
+		if (input.isDirectory()) {
+			File[] children = input.listFiles();
+			if (children != null) {
+				Arrays.sort(children);
+				for (File child : children) {
+					if (child.isFile() && ControlPointsFile.hasExtension(child))
+						files.add(child);
+				}
+			}
+		} else if (input.isFile())
+			files.add(input);
+		else
+			throw new IllegalArgumentException("File not found " + input);
+	}
+
+	/**
+	 * Converts all the files and reports the throughput
+	 * @return exit code (0 if every file was converted)
+	 */
+	private int convertAll() {
+		long start = System.nanoTime();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, files.size()));
+		List<Future<Integer>> results = new ArrayList<Future<Integer>>(files.size());
+		for (final File file : files) {
+			results.add(executor.submit(new Callable<Integer>() {
+				public Integer call() throws IOException {
+					return Integer.valueOf(convert(file));
+				}
+			}));
+		}
+		int converted = 0;
+		long segments = 0;
+		for (int i = 0;i<files.size();i++) {
+			try {
+				segments += results.get(i).get().intValue();
+				converted++;
+			} catch (ExecutionException e) {
+				// Some exceptions have no message (e.g. NullPointerException)
+				Throwable cause = e.getCause();
+				System.err.println(files.get(i) + ": " + (cause.getMessage() != null ? cause.getMessage() : cause.toString()));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		executor.shutdownNow();
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("%d files, %d curve segments in %.3f s (%.1f files/s, %.0f segments/s)%n",
+				converted, segments, seconds, converted / seconds, segments / seconds);
+		if (converted < files.size()) {
+			System.err.println((files.size() - converted) + " files failed");
+			return FAILED;
+		}
+		return OK;
+	}
+
+	/**
+	 * Converts a file
+	 * @param file control points file
+	 * @return number of curve segments of the file (each one is drawn in every format)
+	 * @throws IOException if the file can't be read, the converted files written or the
+	 *                     drawing is too large for a PNG image
+	 */
+	private int convert(File file) throws IOException {
+		Polyline polyline = ControlPointsFile.read(file);
+		Rectangle bounds = Renderer.getDrawingBounds(polyline);
+		int segments = 0;
+		if (bezier)
+			segments += Renderer.getBezierCurveCount(polyline);
+		if (bSpline)
+			segments += Renderer.getBSplineCurveCount(polyline);
+		if (catmullRom)
+			segments += Renderer.getCatmullRomCurveCount(polyline);
+		if (png) {
+			if ((long) bounds.width * bounds.height > MAX_IMAGE_PIXELS)
+				throw new IOException("The drawing is too large for a PNG image (" + bounds.width + " x "
+						+ bounds.height + " pixels)");
+			Renderer renderer = new Renderer();
+			renderer.setAdaptive(adaptive);
+			renderer.setCubic(cubic);
+			BufferedImage image = new BufferedImage(bounds.width, bounds.height, BufferedImage.TYPE_INT_RGB);
+			Graphics2D g = image.createGraphics();
+			g.setColor(Color.WHITE);
+			g.fillRect(0, 0, bounds.width, bounds.height);
+			g.translate(-bounds.x, -bounds.y);
+			g.setClip(bounds);
+			renderer.drawPolyline(g, polyline);
+			renderer.drawMarkers(g, polyline);
+			if (bezier)
+				renderer.drawBezierCurves(g, polyline);
+			if (bSpline)
+				renderer.drawBSplineCurves(g, polyline);
+			if (catmullRom)
+				renderer.drawCatmullRomCurves(g, polyline);
+			g.dispose();
+			File output = getOutputFile(file, ".png");
+			if (!ImageIO.write(image, "png", output))
+				throw new IOException("No PNG writer");
+		}
+		if (!formats.isEmpty()) {
+			// Every vector format is written in one walk of the polyline, on a page of the size of the drawing
+			List<File> outputs = new ArrayList<File>();
+			for (String format : formats)
+				outputs.add(getOutputFile(file, "." + format));
+			PageTransform page = PageTransform.fit(bounds.x, bounds.y, bounds.x + bounds.width, bounds.y + bounds.height);
+			new DrawingExport(polyline, page, true, bezier, bSpline, catmullRom).exportToFiles(outputs, postScriptEncoding, null);
+		}
+		return segments;
+	}
+
+	/**
+	 * Returns the file where a conversion of a file is written
+	 * @param file control points file
+	 * @param extension extension of the converted file
+	 * @return converted file
+	 */
+	private File getOutputFile(File file, String extension) {
+		String name = file.getName();
+		int dot = name.lastIndexOf('.');
+		if (dot > 0)
+			name = name.substring(0, dot);
+		File directory = outputDirectory != null ? outputDirectory : file.getAbsoluteFile().getParentFile();
+		return new File(directory, name + extension);
+	}
+}
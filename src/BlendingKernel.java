@@ -0,0 +1,27 @@
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * This interface represents a way of blending the control points of a curve segment
+ * with the weights of a blending table
+ * Every implementation must give exactly the same points as the scalar one in BlendingTable
+ */
+public interface BlendingKernel {
+
+	/**
+	 * Blends four control points with count samples of weights
+	 * Point i is (x0*w0[i] + x1*w1[i] + x2*w2[i] + x3*w3[i], ...), added in that order and
+	 * truncated to int
+	 * @param w0 blending function 0 value of each sample
+	 * @param w1 blending function 1 value of each sample
+	 * @param w2 blending function 2 value of each sample
+	 * @param w3 blending function 3 value of each sample
+	 * @param count number of samples
+	 * @param px x coordinates of the four control points
+	 * @param py y coordinates of the four control points
+	 * @param xs array where the x coordinates will be stored
+	 * @param ys array where the y coordinates will be stored
+	 * @param offset position of xs and ys where the first point will be stored
+	 */
+	void blend(double[] w0, double[] w1, double[] w2, double[] w3, int count,
+			double[] px, double[] py, int[] xs, int[] ys, int offset);
+}
@@ -0,0 +1,128 @@
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * This class represents the blending function values of a cubic basis
+ * at nPoints+1 evenly spaced values of t. It is immutable, so the same table
+ * can be shared by every curve (and thread) that uses the same basis and number of points
+ *
+ * The points of tables with many samples are blended by the Vector API kernel
+ * (VectorBlendingKernel) when it is available (compiled and run with the jdk.incubator.vector
+ * module) and by a scalar loop otherwise; both give the same points. The system property
+ * curves.vector=false forces the scalar loop
+ */
+public final class BlendingTable {
+
+	// Minimum number of samples for the Vector API kernel to be faster than the scalar one
+	private static final int VECTOR_MIN_SAMPLES = 64;
+
+	private static final BlendingKernel SCALAR_KERNEL = new ScalarKernel();
+	// Vector API kernel; null if it isn't available
+	private static final BlendingKernel VECTOR_KERNEL = loadVectorKernel();
+
+	private final int nPoints;
+	// Kernel used to blend the points of this table
+	private final BlendingKernel kernel;
+	// Weights of each blending function: weights[k][i] is the blending function k value at t = i/nPoints
+	private final double[][] weights;
+
+	/**
+	 * Constructs a blending table
+	 * @param basis basis whose blending functions will be tabulated
+	 * @param nPoints number of steps between t = 0 and t = 1
+	 */
+	BlendingTable(CubicBasis basis, int nPoints) {
+		this.nPoints = nPoints;
+		weights = new double[4][nPoints+1];
+		for (int i = 0;i<nPoints+1;i++) {
+			double t = (double)i / (double)nPoints;
+			for (int k = 0;k<4;k++)
+				weights[k][i] = basis.getBlendingFunction(k, t);
+		}
+		kernel = VECTOR_KERNEL != null && nPoints+1 >= VECTOR_MIN_SAMPLES ? VECTOR_KERNEL : SCALAR_KERNEL;
+	}
+
+	/**
+	 * Loads the Vector API kernel if it is available and enabled
+	 * @return the Vector API kernel; null if it isn't available
+	 */
+	private static BlendingKernel loadVectorKernel() {
+		if (!"false".equals(System.getProperty("curves.vector"))) {
+			try {
+				return (BlendingKernel) Class.forName("VectorBlendingKernel").getDeclaredConstructor().newInstance();
+			} catch (Exception e) {
+				// Not compiled: uses the scalar kernel
+			} catch (LinkageError e) {
+				// The jdk.incubator.vector module isn't available: uses the scalar kernel
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the kernel used to blend the points of this table
+	 * @return the kernel in use
+	 */
+	public BlendingKernel getKernel() {
+		return kernel;
+	}
+
+	/**
+	 * Returns the number of steps between t = 0 and t = 1
+	 * @return number of steps of the table
+	 */
+	public int getNumPoints() {
+		return nPoints;
+	}
+
+	/**
+	 * Returns the blending function k value at sample i
+	 * @param i sample index (0 to nPoints)
+	 * @param k index of the blending function (0 to 3)
+	 * @return blending function k value at t = i/nPoints
+	 */
+	public double getWeight(int i, int k) {
+		return weights[k][i];
+	}
+
+	/**
+	 * Creates the nPoints+1 points of a curve segment by blending its control points
+	 * @param px x coordinates of the four control points
+	 * @param py y coordinates of the four control points
+	 * @param out buffer where the created points will be added
+	 */
+	public void blend(double[] px, double[] py, PointBuffer out) {
+		blend(kernel, px, py, out);
+	}
+
+	/**
+	 * Creates the nPoints+1 points of a curve segment by blending its control points with a given kernel
+	 * @param kernel kernel that blends the points
+	 * @param px x coordinates of the four control points
+	 * @param py y coordinates of the four control points
+	 * @param out buffer where the created points will be added
+	 */
+	public void blend(BlendingKernel kernel, double[] px, double[] py, PointBuffer out) {
+		int first = out.extend(nPoints+1);
+		kernel.blend(weights[0], weights[1], weights[2], weights[3], nPoints+1, px, py, out.getXs(), out.getYs(), first);
+	}
+
+	/**
+	 * This class blends the points one at a time
+	 */
+	static class ScalarKernel implements BlendingKernel {
+
+		/* (non-Javadoc)
+		 * @see BlendingKernel#blend(double[], double[], double[], double[], int, double[], double[], int[], int[], int)
+		 */
+		public void blend(double[] w0, double[] w1, double[] w2, double[] w3, int count,
+				double[] px, double[] py, int[] xs, int[] ys, int offset) {
+			double x0 = px[0], x1 = px[1], x2 = px[2], x3 = px[3];
+			double y0 = py[0], y1 = py[1], y2 = py[2], y3 = py[3];
+			// Each coordinate only needs four multiply-adds per point
+			for (int i = 0;i<count;i++) {
+				xs[offset + i] = (int)(x0*w0[i] + x1*w1[i] + x2*w2[i] + x3*w3[i]);
+				ys[offset + i] = (int)(y0*w0[i] + y1*w1[i] + y2*w2[i] + y3*w3[i]);
+			}
+		}
+	}
+}
@@ -0,0 +1,255 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * This class reads a polyline from a text (or CSV) file with its control points
+ * Each line has the x and y coordinates of a point, separated by spaces, tabs, a comma or
+ * a semicolon; decimal coordinates (also without the integer part, e.g. .5 or -.5) are
+ * rounded. Empty lines and comments (from # to the end of the line) are ignored, and so are
+ * a UTF-8 byte order mark and a header in the first line (e.g. x,y), if it has no digits
+ *
+ * The file is read in fixed size chunks and parsed directly from the bytes, so no string is
+ * created for each line (the file itself is never in memory, but its polyline must fit in it)
+ */
+public class ControlPointsFile {
+
+	// Extensions of the control points files
+	public static final String[] EXTENSIONS = {"txt", "csv"};
+
+	// Size of the chunks read from the file
+	private static final int BUFFER_SIZE = 64*1024;
+	// Byte order mark written at the start of UTF-8 files by some editors
+	private static final byte[] BYTE_ORDER_MARK = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+	private final File file;
+	private final TaskProgress progress;
+
+	// Points read
+	private final List<Point> vertices = new ArrayList<Point>();
+
+	// Parsing state
+	private int lineNumber = 1;
+	private boolean inComment;
+	private boolean inHeader;
+	// If a line with points (or the header) was already read
+	private boolean contentRead;
+	private boolean inNumber;
+	private boolean negative;
+	private boolean inFraction;
+	private boolean roundUp;
+	private boolean firstFractionDigit;
+	private boolean hasDigits;
+	private long value;
+	private final int[] coordinates = new int[2];
+	private int nCoordinates;
+
+	/**
+	 * Returns if a file has the extension of a control points file (one of EXTENSIONS)
+	 * @param file file to check
+	 * @return true if the file is a control points file; false otherwise
+	 */
+	public static boolean hasExtension(File file) {
+		String name = file.getName();
+		String extension = name.substring(name.lastIndexOf('.') + 1).toLowerCase();
+		for (String e : EXTENSIONS) {
+			if (e.equals(extension))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Constructs a reader of a control points file
+	 * @param file file to read
+	 * @param progress receiver of the progress (can be null)
+	 */
+	private ControlPointsFile(File file, TaskProgress progress) {
+		this.file = file;
+		this.progress = progress;
+	}
+
+	/**
+	 * Reads the polyline of a control points file
+	 * @param file file to read
+	 * @return the (finished) polyline with the points of the file
+	 * @throws IOException if the file can't be read or has an invalid line
+	 */
+	public static Polyline read(File file) throws IOException {
+		return read(file, null);
+	}
+
+	/**
+	 * Reads the polyline of a control points file, reporting the number of bytes read
+	 * @param file file to read
+	 * @param progress receiver of the progress (can be null); reading stops if it cancels
+	 * @return the (finished) polyline with the points of the file
+	 * @throws IOException if the file can't be read or has an invalid line
+	 * @throws CancellationException if the reading was cancelled
+	 */
+	public static Polyline read(File file, TaskProgress progress) throws IOException {
+		return new ControlPointsFile(file, progress).read();
+	}
+
+	/**
+	 * Reads the file
+	 * @return the (finished) polyline with the points of the file
+	 * @throws IOException if the file can't be read or has an invalid line
+	 */
+	private Polyline read() throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			long total = channel.size();
+			long done = 0;
+			ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+			int n;
+			boolean start = true;
+			while ((n = channel.read(buffer)) >= 0) {
+				buffer.flip();
+				if (start) {
+					skipByteOrderMark(buffer);
+					start = false;
+				}
+				parse(buffer);
+				buffer.clear();
+				done += n;
+				if (progress != null && !progress.update(done, total))
+					throw new CancellationException("The reading of " + file + " was cancelled");
+			}
+			// The last line may not end with a new line
+			endLine();
+		} finally {
+			channel.close();
+		}
+		if (vertices.size() < 2)
+			throw new IOException("A polyline needs at least 2 points");
+		// Each line has its own point
+		int[] sequence = new int[vertices.size()];
+		for (int i = 0;i<sequence.length;i++)
+			sequence[i] = i;
+		return new Polyline(vertices, sequence);
+	}
+
+	/**
+	 * Skips the UTF-8 byte order mark at the start of the file, if there's one
+	 * @param buffer first chunk of the file
+	 */
+	private static void skipByteOrderMark(ByteBuffer buffer) {
+		if (buffer.remaining() < BYTE_ORDER_MARK.length)
+			return;
+		for (int i = 0;i<BYTE_ORDER_MARK.length;i++) {
+			if (buffer.get(buffer.position() + i) != BYTE_ORDER_MARK[i])
+				return;
+		}
+		buffer.position(buffer.position() + BYTE_ORDER_MARK.length);
+	}
+
+	/**
+	 * Parses the bytes of a chunk of the file (a line can continue in the next chunk)
+	 * @param buffer chunk of the file
+	 * @throws IOException if there's an invalid line
+	 */
+	private void parse(ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			int b = buffer.get();
+			if (b == '\n') {
+				endLine();
+				continue;
+			}
+			if (inComment)
+				continue;
+			boolean isDigit = b >= '0' && b <= '9';
+			if (inHeader) {
+				// A line with digits isn't a header, but an invalid line
+				if (isDigit)
+					throw new IOException("Line " + lineNumber + ": invalid coordinate");
+				continue;
+			}
+			if (isDigit) {
+				int digit = b - '0';
+				if (!inNumber) {
+					inNumber = true;
+					value = 0;
+				}
+				hasDigits = true;
+				if (inFraction) {
+					// Only the first decimal digit matters to round
+					if (firstFractionDigit)
+						roundUp = digit >= 5;
+					firstFractionDigit = false;
+				} else {
+					value = value*10 + digit;
+					if (value > Integer.MAX_VALUE)
+						throw new IOException("Line " + lineNumber + ": coordinate too large");
+				}
+			} else if (b == '-' && !inNumber && !negative)
+				negative = true;
+			else if (b == '.' && !inFraction) {
+				// A number can start with its decimals (e.g. .5 or -.5)
+				if (!inNumber) {
+					inNumber = true;
+					value = 0;
+					roundUp = false;
+				}
+				inFraction = true;
+				firstFractionDigit = true;
+			} else if (b == ' ' || b == '\t' || b == ',' || b == ';' || b == '\r')
+				endNumber();
+			else if (b == '#')
+				inComment = true;
+			else if (!contentRead && nCoordinates == 0 && !inNumber && !negative)
+				// Header of the columns (only the first line, if it has no digits)
+				inHeader = true;
+			else
+				throw new IOException("Line " + lineNumber + ": invalid coordinate");
+		}
+	}
+
+	/**
+	 * Ends the number being parsed, if there's one
+	 * @throws IOException if the line has more than two coordinates
+	 */
+	private void endNumber() throws IOException {
+		if (!inNumber) {
+			if (negative)
+				throw new IOException("Line " + lineNumber + ": invalid coordinate");
+			return;
+		}
+		if (!hasDigits)
+			throw new IOException("Line " + lineNumber + ": invalid coordinate");
+		if (nCoordinates == 2)
+			throw new IOException("Line " + lineNumber + ": expected x and y coordinates");
+		long v = roundUp ? value+1 : value;
+		coordinates[nCoordinates++] = (int) (negative ? -v : v);
+		inNumber = false;
+		negative = false;
+		inFraction = false;
+		roundUp = false;
+		hasDigits = false;
+	}
+
+	/**
+	 * Ends the line being parsed, adding its point
+	 * @throws IOException if the line doesn't have two coordinates
+	 */
+	private void endLine() throws IOException {
+		endNumber();
+		if (nCoordinates == 1)
+			throw new IOException("Line " + lineNumber + ": expected x and y coordinates");
+		if (nCoordinates == 2)
+			vertices.add(new Point(coordinates[0], coordinates[1]));
+		if (nCoordinates > 0 || inHeader)
+			contentRead = true;
+		nCoordinates = 0;
+		inComment = false;
+		inHeader = false;
+		lineNumber++;
+	}
+}
@@ -0,0 +1,140 @@
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * This class represents the basis of a cubic curve
+ * A basis is given by a 4x4 matrix M such that Q(t) = [t^3 t^2 t 1] * M * [P0 P1 P2 P3]
+ */
+public final class CubicBasis {
+
+	// Bezier basis
+	public static final CubicBasis BEZIER = new CubicBasis("B\u00E9zier", new double[][] {
+			{-1,  3, -3, 1},
+			{ 3, -6,  3, 0},
+			{-3,  3,  0, 0},
+			{ 1,  0,  0, 0}
+	}, 1.0);
+
+	// Uniform cubic B-Spline basis
+	public static final CubicBasis B_SPLINE = new CubicBasis("B-Spline", new double[][] {
+			{-1,  3, -3, 1},
+			{ 3, -6,  3, 0},
+			{-3,  0,  3, 0},
+			{ 1,  4,  1, 0}
+	}, 6.0);
+
+	// Catmull-Rom basis
+	public static final CubicBasis CATMULL_ROM = new CubicBasis("Catmull-Rom", new double[][] {
+			{-1,  3, -3,  1},
+			{ 2, -5,  4, -1},
+			{-1,  0,  1,  0},
+			{ 0,  2,  0,  0}
+	}, 2.0);
+
+	// Blending tables are only cached up to this number of points per segment
+	public static final int MAX_TABLE_POINTS = 1024;
+
+	private final String name;
+	private final double[][] matrix;
+	private final double divisor;
+	// Blending tables of this basis already computed, by number of points
+	private final ConcurrentMap<Integer, BlendingTable> tables;
+
+	/**
+	 * Constructs a cubic basis
+	 * @param name name of the basis
+	 * @param matrix 4x4 basis matrix (rows are the t^3, t^2, t and 1 terms)
+	 * @param divisor value by which every entry of the matrix is divided
+	 */
+	public CubicBasis(String name, double[][] matrix, double divisor) {
+		if (matrix.length != 4)
+			throw new IllegalArgumentException("The basis matrix must be 4x4");
+		this.name = name;
+		this.matrix = new double[4][];
+		for (int i = 0;i<4;i++) {
+			if (matrix[i].length != 4)
+				throw new IllegalArgumentException("The basis matrix must be 4x4");
+			this.matrix[i] = matrix[i].clone();
+		}
+		this.divisor = divisor;
+		tables = new ConcurrentHashMap<Integer, BlendingTable>();
+	}
+
+	/**
+	 * Returns the name of the basis
+	 * @return name of the basis
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the polynomial coefficients {a, b, c, d} of one coordinate of a curve segment,
+	 * such that Q(t) = a*t^3 + b*t^2 + c*t + d
+	 * @param p0 coordinate of the first control point
+	 * @param p1 coordinate of the second control point
+	 * @param p2 coordinate of the third control point
+	 * @param p3 coordinate of the fourth control point
+	 * @return polynomial coefficients of the coordinate
+	 */
+	public double[] getCoefficients(double p0, double p1, double p2, double p3) {
+		double[] coefficients = new double[4];
+		for (int i = 0;i<4;i++) {
+			double[] row = matrix[i];
+			coefficients[i] = (row[0]*p0 + row[1]*p1 + row[2]*p2 + row[3]*p3) / divisor;
+		}
+		return coefficients;
+	}
+
+	/**
+	 * Returns one coordinate of the four Bezier control points that describe the same
+	 * segment as the given control points of this basis
+	 * @param p0 coordinate of the first control point
+	 * @param p1 coordinate of the second control point
+	 * @param p2 coordinate of the third control point
+	 * @param p3 coordinate of the fourth control point
+	 * @return coordinate of the four equivalent Bezier control points
+	 */
+	public double[] getBezierControlPoints(double p0, double p1, double p2, double p3) {
+		double[] c = getCoefficients(p0, p1, p2, p3);
+		double[] bezier = new double[4];
+		bezier[0] = c[3];
+		bezier[1] = c[3] + c[2]/3.0;
+		bezier[2] = c[3] + (2.0*c[2] + c[1])/3.0;
+		bezier[3] = c[0] + c[1] + c[2] + c[3];
+		return bezier;
+	}
+
+	/**
+	 * Returns the blending function k value of the basis
+	 * @param k index of the blending function (0 to 3)
+	 * @param t
+	 * @return blending function k value
+	 */
+	public double getBlendingFunction(int k, double t) {
+		return (((matrix[0][k]*t + matrix[1][k])*t + matrix[2][k])*t + matrix[3][k]) / divisor;
+	}
+
+	/**
+	 * Returns the blending table of this basis for nPoints steps
+	 * Tables are computed once and shared by every curve using this basis
+	 * @param nPoints number of steps between t = 0 and t = 1
+	 * @return the blending table; null if nPoints is larger than MAX_TABLE_POINTS
+	 */
+	public BlendingTable getBlendingTable(int nPoints) {
+		if (nPoints > MAX_TABLE_POINTS)
+			return null;
+		Integer key = Integer.valueOf(nPoints);
+		BlendingTable table = tables.get(key);
+		if (table == null) {
+			BlendingTable created = new BlendingTable(this, nPoints);
+			table = tables.putIfAbsent(key, created);
+			if (table == null)
+				table = created;
+		}
+		return table;
+	}
+
+}
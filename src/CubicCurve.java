@@ -0,0 +1,97 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * This class represents a cubic curve segment defined by four control points
+ * and a basis matrix. Bezier, B-Spline and Catmull-Rom curves only differ on their basis
+ */
+public abstract class CubicCurve implements Curve {
+
+	private List<Point> points;
+	private int nPoints;
+	private CubicBasis basis;
+
+	// Coordinates of the four control points
+	private double[] px;
+	private double[] py;
+
+	// Polynomial coefficients {a, b, c, d} of x and y
+	private double[] cx;
+	private double[] cy;
+
+	/**
+	 * Constructs a cubic curve
+	 * @param controlPoints control points of the curve (only the first four are used)
+	 * @param nPoints number of points to be used when drawing the curve
+	 * @param basis basis of the curve
+	 */
+	protected CubicCurve(List<Point> controlPoints, int nPoints, CubicBasis basis) {
+		Point p0, p1, p2, p3;
+		p0 = controlPoints.get(0);
+		p1 = controlPoints.get(1);
+		p2 = controlPoints.get(2);
+		p3 = controlPoints.get(3);
+
+		this.basis = basis;
+		this.nPoints = nPoints;
+		px = new double[] {p0.getX(), p1.getX(), p2.getX(), p3.getX()};
+		py = new double[] {p0.getY(), p1.getY(), p2.getY(), p3.getY()};
+		cx = basis.getCoefficients(p0.getX(), p1.getX(), p2.getX(), p3.getX());
+		cy = basis.getCoefficients(p0.getY(), p1.getY(), p2.getY(), p3.getY());
+		points = null;
+	}
+
+	/**
+	 * Returns the basis of the curve
+	 * @return basis of the curve
+	 */
+	public CubicBasis getBasis() {
+		return basis;
+	}
+
+	/* (non-Javadoc)
+	 * @see Curve#getQFunctionX(double)
+	 */
+	public double getQFunctionX(double t) {
+		return ((cx[0]*t + cx[1])*t + cx[2])*t + cx[3];
+	}
+
+	/* (non-Javadoc)
+	 * @see Curve#getQFunctionY(double)
+	 */
+	public double getQFunctionY(double t) {
+		return ((cy[0]*t + cy[1])*t + cy[2])*t + cy[3];
+	}
+
+	/* (non-Javadoc)
+	 * @see Curve#tessellate(PointBuffer)
+	 */
+	public void tessellate(PointBuffer out) {
+		CurveTessellator.tessellate(basis, px, py, nPoints, out);
+	}
+
+	/* (non-Javadoc)
+	 * @see Curve#tessellate(PointBuffer, double)
+	 */
+	public void tessellate(PointBuffer out, double flatness) {
+		CurveTessellator.tessellateAdaptive(basis, px, py, flatness, out);
+	}
+
+	/* (non-Javadoc)
+	 * @see Curve#getPoints()
+	 */
+	public List<Point> getPoints() {
+		// The points are only created when they are asked for
+		if (points == null) {
+			PointBuffer buffer = new PointBuffer(nPoints+1);
+			tessellate(buffer);
+			points = new ArrayList<Point>(buffer.size());
+			for (int i = 0;i<buffer.size();i++)
+				points.add(new Point(buffer.getX(i), buffer.getY(i)));
+		}
+		return points;
+	}
+
+}
@@ -12,6 +12,22 @@ public interface Curve {
 	 */
 	List<Point> getPoints();
 	
+	/**
+	 * Adds the points to be used when drawing the curve to a buffer
+	 * Unlike getPoints it does not create a Point object per point, so the
+	 * same buffer can be reused on every drawing
+	 * @param out buffer where the points will be added
+	 */
+	void tessellate(PointBuffer out);
+	
+	/**
+	 * Adds the points to be used when drawing the curve to a buffer, using as few
+	 * points as possible while staying within flatness pixels of the curve
+	 * @param out buffer where the points will be added
+	 * @param flatness maximum distance (in pixels) between the curve and the drawn lines
+	 */
+	void tessellate(PointBuffer out, double flatness);
+	
 	/**
 	 * Returns the QFunction value of x
 	 * @param t x value
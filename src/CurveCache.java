@@ -0,0 +1,386 @@
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * This class represents a cache of the tessellated segments of a curve family
+ * A segment is only tessellated again when one of its control points is replaced
+ * or moved, so dragging a point only re-tessellates the segments that use it
+ *
+ * Many segments can also be tessellated in parallel (prepare), each one in its own
+ * buffer, giving exactly the same points as when they are tessellated one at a time
+ *
+ * In cubic mode the segments aren't tessellated: each one keeps the Bezier control points
+ * of the same segment, to be drawn with curveTo (Java2D flattens them itself)
+ */
+public class CurveCache {
+
+	// Default minimum number of segments to tessellate for prepare to use several threads
+	private static final int DEFAULT_PARALLEL_THRESHOLD = Integer.getInteger("curves.parallel.threshold", 1024);
+	// Number of segments tessellated by each parallel task
+	private static final int TASK_SIZE = 256;
+
+	private CubicBasis basis;
+	private int nPoints;
+	private double flatness;
+	private boolean adaptive;
+	private boolean cubic;
+	private boolean parallel;
+	private int parallelThreshold;
+
+	// Cached segments, by segment index (null if the segment was never tessellated)
+	private List<Segment> segments;
+
+	// Reused to hold the control point coordinates of the segment being tessellated
+	private final double[] controlX = new double[4];
+	private final double[] controlY = new double[4];
+
+	/**
+	 * Constructs an empty curve cache
+	 * @param basis basis of the curves
+	 * @param nPoints number of points of each segment when not tessellating adaptively
+	 * @param flatness maximum distance (in pixels) between a segment and its lines when tessellating adaptively
+	 */
+	public CurveCache(CubicBasis basis, int nPoints, double flatness) {
+		this.basis = basis;
+		this.nPoints = nPoints;
+		this.flatness = flatness;
+		adaptive = false;
+		cubic = false;
+		parallel = false;
+		parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+		segments = new ArrayList<Segment>();
+	}
+
+	/**
+	 * Returns the basis of the curves
+	 * @return basis of the curves
+	 */
+	public CubicBasis getBasis() {
+		return basis;
+	}
+
+	/**
+	 * Sets if the segments are tessellated adaptively
+	 * Every cached segment is discarded if the tessellation changes
+	 * @param adaptive true to tessellate adaptively; false to use nPoints points
+	 */
+	public void setAdaptive(boolean adaptive) {
+		if (this.adaptive != adaptive) {
+			this.adaptive = adaptive;
+			clear();
+		}
+	}
+
+	/**
+	 * Sets if the segments are kept as Bezier control points instead of tessellated points
+	 * Every cached segment is discarded if the mode changes
+	 * @param cubic true to keep Bezier control points (getBezierControlPoints); false to tessellate (getPoints)
+	 */
+	public void setCubic(boolean cubic) {
+		if (this.cubic != cubic) {
+			this.cubic = cubic;
+			clear();
+		}
+	}
+
+	/**
+	 * Returns if the segments are kept as Bezier control points
+	 * @return true if the segments are kept as Bezier control points; false otherwise
+	 */
+	public boolean isCubic() {
+		return cubic;
+	}
+
+	/**
+	 * Sets if prepare tessellates the segments in parallel
+	 * @param parallel true to tessellate in parallel; false to only tessellate in getPoints
+	 */
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+
+	/**
+	 * Sets the minimum number of segments to tessellate for prepare to use several threads
+	 * (the default is given by the system property curves.parallel.threshold)
+	 * @param threshold minimum number of segments
+	 */
+	public void setParallelThreshold(int threshold) {
+		parallelThreshold = threshold;
+	}
+
+	/**
+	 * Discards every cached segment
+	 */
+	public void clear() {
+		segments.clear();
+	}
+
+	/**
+	 * Discards the cached segments from index size onwards
+	 * @param size number of segments to keep
+	 */
+	public void trim(int size) {
+		while (segments.size() > size)
+			segments.remove(segments.size()-1);
+	}
+
+	/**
+	 * Returns the tessellated points of a segment. The segment is only tessellated
+	 * if it isn't cached or if any of its control points changed since it was cached
+	 * @param index index of the segment in the curve
+	 * @param controlPoints the four control points of the segment
+	 * @return the points of the segment (must not be changed by the caller)
+	 */
+	public PointBuffer getPoints(int index, List<Point> controlPoints) {
+		while (segments.size() <= index)
+			segments.add(null);
+		return update(index, controlPoints, controlX, controlY).points;
+	}
+
+	/**
+	 * Returns the Bezier control points of a segment (only in cubic mode). They are only
+	 * calculated if the segment isn't cached or if any of its control points changed
+	 * @param index index of the segment in the curve
+	 * @param controlPoints the four control points of the segment
+	 * @return x0, y0, x1, y1, x2, y2, x3, y3 of the Bezier control points (must not be changed by the caller)
+	 */
+	public double[] getBezierControlPoints(int index, List<Point> controlPoints) {
+		while (segments.size() <= index)
+			segments.add(null);
+		return update(index, controlPoints, controlX, controlY).bezier;
+	}
+
+	/**
+	 * Tessellates, in parallel, every segment of a polyline's curve that isn't cached or changed
+	 * It only uses several threads if parallel tessellation is set and there are at least as
+	 * many segments to tessellate as the threshold; otherwise they are left to getPoints
+	 * The polyline must not be changed until it returns
+	 * @param polyline polyline with the control points
+	 * @param nCurves number of segments of the curve
+	 * @param step number of control points between the first points of two consecutive segments
+	 */
+	public void prepare(Polyline polyline, int nCurves, int step) {
+		prepare(polyline, null, nCurves, step);
+	}
+
+	/**
+	 * Tessellates, in parallel, the given segments of a polyline's curve that aren't cached or
+	 * changed (e.g. the ones inside the area being drawn), as prepare(Polyline, int, int)
+	 * @param polyline polyline with the control points
+	 * @param indices indices of the segments, in increasing order (null for the segments 0 to count-1)
+	 * @param count number of segments
+	 * @param step number of control points between the first points of two consecutive segments
+	 */
+	public void prepare(Polyline polyline, int[] indices, int count, int step) {
+		if (!parallel || count == 0)
+			return;
+		int size = (indices == null ? count : indices[count-1] + 1);
+		while (segments.size() < size)
+			segments.add(null);
+		List<Point> window = new ArrayList<Point>(4);
+		int invalid = 0;
+		for (int k = 0;k<count && invalid<parallelThreshold;k++) {
+			int i = (indices == null ? k : indices[k]);
+			Segment segment = segments.get(i);
+			if (segment == null || !segment.isValid(getWindow(polyline, i*step, window)))
+				invalid++;
+		}
+		if (invalid < parallelThreshold)
+			return;
+		ForkJoinPool.commonPool().invoke(new PrepareTask(polyline, indices, step, 0, count));
+	}
+
+	/**
+	 * Returns the four control points of a segment
+	 * @param polyline polyline with the control points
+	 * @param first position of the first control point of the segment
+	 * @param window list where the control points are stored
+	 * @return window, with the control points
+	 */
+	private static List<Point> getWindow(Polyline polyline, int first, List<Point> window) {
+		window.clear();
+		for (int k = 0;k<4;k++)
+			window.add(polyline.getControlPoint(first + k));
+		return window;
+	}
+
+	/**
+	 * Tessellates a segment if it isn't cached or if any of its control points changed
+	 * The segment must already have a position in the list of segments
+	 * @param index index of the segment in the curve
+	 * @param controlPoints the four control points of the segment
+	 * @param x array used to hold the control points' x coordinates
+	 * @param y array used to hold the control points' y coordinates
+	 * @return the cached segment
+	 */
+	private Segment update(int index, List<Point> controlPoints, double[] x, double[] y) {
+		Segment segment = segments.get(index);
+		if (segment == null) {
+			segment = new Segment(adaptive || cubic ? 4 : nPoints+1);
+			segments.set(index, segment);
+		}
+		if (!segment.isValid(controlPoints)) {
+			for (int k = 0;k<4;k++) {
+				Point pt = controlPoints.get(k);
+				x[k] = pt.getX();
+				y[k] = pt.getY();
+				segment.controlPoints[k] = pt;
+				segment.versions[k] = pt.getVersion();
+			}
+			if (cubic) {
+				segment.setBezierControlPoints(basis.getBezierControlPoints(x[0], x[1], x[2], x[3]),
+						basis.getBezierControlPoints(y[0], y[1], y[2], y[3]));
+				return segment;
+			}
+			segment.points.clear();
+			if (adaptive)
+				CurveTessellator.tessellateAdaptive(basis, x, y, flatness, segment.points);
+			else
+				CurveTessellator.tessellate(basis, x, y, nPoints, segment.points);
+			segment.updateBounds();
+		}
+		return segment;
+	}
+
+	/**
+	 * Returns the bounding box of a segment returned by getPoints or getBezierControlPoints
+	 * @param index index of the segment in the curve
+	 * @return bounding box of the segment (must not be changed by the caller)
+	 */
+	public Rectangle getBounds(int index) {
+		return segments.get(index).bounds;
+	}
+
+	/**
+	 * This class represents the parallel tessellation of a range of segments
+	 * Each segment is only written by the task of its range, so no locking is needed
+	 */
+	private class PrepareTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Polyline polyline;
+		private final int[] indices;
+		private final int step;
+		private final int from;
+		private final int to;
+
+		/**
+		 * Constructs a task
+		 * @param polyline polyline with the control points
+		 * @param indices indices of the segments (null if the range has the segment indices)
+		 * @param step number of control points between the first points of two consecutive segments
+		 * @param from first position of the range
+		 * @param to position after the last one of the range
+		 */
+		private PrepareTask(Polyline polyline, int[] indices, int step, int from, int to) {
+			this.polyline = polyline;
+			this.indices = indices;
+			this.step = step;
+			this.from = from;
+			this.to = to;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.concurrent.RecursiveAction#compute()
+		 */
+		protected void compute() {
+			if (to - from > TASK_SIZE) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new PrepareTask(polyline, indices, step, from, middle),
+						new PrepareTask(polyline, indices, step, middle, to));
+				return;
+			}
+			List<Point> window = new ArrayList<Point>(4);
+			double[] x = new double[4];
+			double[] y = new double[4];
+			for (int k = from;k<to;k++) {
+				int i = (indices == null ? k : indices[k]);
+				update(i, getWindow(polyline, i*step, window), x, y);
+			}
+		}
+	}
+
+	/**
+	 * This class represents a cached segment
+	 */
+	private static class Segment {
+		// Control points used (and their versions) when the segment was tessellated
+		private Point[] controlPoints;
+		private int[] versions;
+		private PointBuffer points;
+		// Bezier control points of the segment, in cubic mode (null otherwise)
+		private double[] bezier;
+		private Rectangle bounds;
+
+		/**
+		 * Constructs an empty segment
+		 * @param capacity initial number of points of the segment
+		 */
+		private Segment(int capacity) {
+			controlPoints = new Point[4];
+			versions = new int[4];
+			points = new PointBuffer(capacity);
+			bounds = new Rectangle();
+		}
+
+		/**
+		 * Updates the bounding box of the segment's points
+		 */
+		private void updateBounds() {
+			int[] xs = points.getXs();
+			int[] ys = points.getYs();
+			int minX = xs[0], maxX = xs[0], minY = ys[0], maxY = ys[0];
+			for (int i = 1;i<points.size();i++) {
+				minX = Math.min(minX, xs[i]);
+				maxX = Math.max(maxX, xs[i]);
+				minY = Math.min(minY, ys[i]);
+				maxY = Math.max(maxY, ys[i]);
+			}
+			// Lines are drawn one pixel wide, so the last column and row are included
+			bounds.setBounds(minX, minY, maxX-minX+1, maxY-minY+1);
+		}
+
+		/**
+		 * Stores the Bezier control points of the segment and updates its bounding box
+		 * (the bounding box of the control points, which contains the segment)
+		 * @param bx x coordinates of the Bezier control points
+		 * @param by y coordinates of the Bezier control points
+		 */
+		private void setBezierControlPoints(double[] bx, double[] by) {
+			if (bezier == null)
+				bezier = new double[8];
+			double minX = bx[0], maxX = bx[0], minY = by[0], maxY = by[0];
+			for (int k = 0;k<4;k++) {
+				bezier[2*k] = bx[k];
+				bezier[2*k+1] = by[k];
+				minX = Math.min(minX, bx[k]);
+				maxX = Math.max(maxX, bx[k]);
+				minY = Math.min(minY, by[k]);
+				maxY = Math.max(maxY, by[k]);
+			}
+			int x = (int)Math.floor(minX);
+			int y = (int)Math.floor(minY);
+			bounds.setBounds(x, y, (int)Math.ceil(maxX)-x+1, (int)Math.ceil(maxY)-y+1);
+		}
+
+		/**
+		 * Returns if the segment was tessellated with the same, unchanged, control points
+		 * @param current the current control points of the segment
+		 * @return true if the cached points can be used; false otherwise
+		 */
+		private boolean isValid(List<Point> current) {
+			for (int k = 0;k<4;k++) {
+				Point pt = current.get(k);
+				if (controlPoints[k] != pt || versions[k] != pt.getVersion())
+					return false;
+			}
+			return true;
+		}
+	}
+}
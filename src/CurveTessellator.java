@@ -0,0 +1,134 @@
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * This class tessellates cubic curves
+ * It is shared by all the cubic curves (Bezier, B-Spline and Catmull-Rom)
+ */
+public final class CurveTessellator {
+
+	// Maximum number of times a segment is split in half when tessellating adaptively
+	private static final int MAX_DEPTH = 10;
+
+	/**
+	 * This class only has static methods
+	 */
+	private CurveTessellator() {
+	}
+
+	/**
+	 * Creates the nPoints+1 points of a cubic curve segment
+	 * The shared blending table of the basis is used when available; otherwise
+	 * the segment is stepped with forward differencing
+	 * @param basis basis of the curve
+	 * @param px x coordinates of the four control points
+	 * @param py y coordinates of the four control points
+	 * @param nPoints number of steps between t = 0 and t = 1
+	 * @param out buffer where the created points will be added
+	 */
+	public static void tessellate(CubicBasis basis, double[] px, double[] py, int nPoints, PointBuffer out) {
+		BlendingTable table = basis.getBlendingTable(nPoints);
+		if (table != null) {
+			table.blend(px, py, out);
+		} else {
+			double[] cx = basis.getCoefficients(px[0], px[1], px[2], px[3]);
+			double[] cy = basis.getCoefficients(py[0], py[1], py[2], py[3]);
+			forwardDifference(cx, cy, nPoints, out);
+		}
+	}
+
+	/**
+	 * Creates the nPoints+1 points of a cubic curve using forward differencing
+	 * Each coordinate is given by the polynomial a*t^3 + b*t^2 + c*t + d, so after
+	 * the initial differences are computed each new point only needs three additions
+	 * per coordinate
+	 * @param cx coefficients {a, b, c, d} of the x polynomial
+	 * @param cy coefficients {a, b, c, d} of the y polynomial
+	 * @param nPoints number of steps between t = 0 and t = 1
+	 * @param out buffer where the created points will be added
+	 */
+	public static void forwardDifference(double[] cx, double[] cy, int nPoints, PointBuffer out) {
+		double h = 1.0 / (double)nPoints;
+		double h2 = h*h;
+		double h3 = h2*h;
+
+		// Value and first, second and third differences of x
+		double x = cx[3];
+		double dx1 = cx[0]*h3 + cx[1]*h2 + cx[2]*h;
+		double dx2 = 6*cx[0]*h3 + 2*cx[1]*h2;
+		double dx3 = 6*cx[0]*h3;
+
+		// Value and first, second and third differences of y
+		double y = cy[3];
+		double dy1 = cy[0]*h3 + cy[1]*h2 + cy[2]*h;
+		double dy2 = 6*cy[0]*h3 + 2*cy[1]*h2;
+		double dy3 = 6*cy[0]*h3;
+
+		out.ensureCapacity(out.size() + nPoints+1);
+		for (int i = 0;i<nPoints+1;i++) {
+			out.add((int)x, (int)y);
+			x += dx1;
+			dx1 += dx2;
+			dx2 += dx3;
+			y += dy1;
+			dy1 += dy2;
+			dy2 += dy3;
+		}
+	}
+
+	/**
+	 * Creates the points of a cubic curve segment so that no point of the curve is farther
+	 * than flatness from the drawn lines. Flat parts of the segment get very few points
+	 * and tight bends get many
+	 * @param basis basis of the curve
+	 * @param px x coordinates of the four control points
+	 * @param py y coordinates of the four control points
+	 * @param flatness maximum distance (in pixels) between the curve and the drawn lines
+	 * @param out buffer where the created points will be added
+	 */
+	public static void tessellateAdaptive(CubicBasis basis, double[] px, double[] py, double flatness, PointBuffer out) {
+		double[] bx = basis.getBezierControlPoints(px[0], px[1], px[2], px[3]);
+		double[] by = basis.getBezierControlPoints(py[0], py[1], py[2], py[3]);
+		out.add((int)bx[0], (int)by[0]);
+		subdivide(bx[0], by[0], bx[1], by[1], bx[2], by[2], bx[3], by[3],
+				16*flatness*flatness, MAX_DEPTH, out);
+	}
+
+	/**
+	 * Adds the end point of a Bezier segment if it is flat enough; otherwise splits it
+	 * in half (de Casteljau) and does the same to both halves
+	 * @param x0 x of the first Bezier control point
+	 * @param y0 y of the first Bezier control point
+	 * @param x1 x of the second Bezier control point
+	 * @param y1 y of the second Bezier control point
+	 * @param x2 x of the third Bezier control point
+	 * @param y2 y of the third Bezier control point
+	 * @param x3 x of the fourth Bezier control point
+	 * @param y3 y of the fourth Bezier control point
+	 * @param tolerance 16 times the square of the flatness
+	 * @param depth number of times the segment can still be split
+	 * @param out buffer where the created points will be added
+	 */
+	private static void subdivide(double x0, double y0, double x1, double y1,
+			double x2, double y2, double x3, double y3, double tolerance, int depth, PointBuffer out) {
+		// Distance of the inner control points to the chord (it bounds the distance of the curve)
+		double ux = 3*x1 - 2*x0 - x3;
+		double uy = 3*y1 - 2*y0 - y3;
+		double vx = 3*x2 - x0 - 2*x3;
+		double vy = 3*y2 - y0 - 2*y3;
+		if (depth == 0 || Math.max(ux*ux, vx*vx) + Math.max(uy*uy, vy*vy) <= tolerance) {
+			out.add((int)x3, (int)y3);
+			return;
+		}
+
+		// Split the segment at t = 0.5
+		double x01 = (x0 + x1)/2, y01 = (y0 + y1)/2;
+		double x12 = (x1 + x2)/2, y12 = (y1 + y2)/2;
+		double x23 = (x2 + x3)/2, y23 = (y2 + y3)/2;
+		double x012 = (x01 + x12)/2, y012 = (y01 + y12)/2;
+		double x123 = (x12 + x23)/2, y123 = (y12 + y23)/2;
+		double xm = (x012 + x123)/2, ym = (y012 + y123)/2;
+
+		subdivide(x0, y0, x01, y01, x012, y012, xm, ym, tolerance, depth-1, out);
+		subdivide(xm, ym, x123, y123, x23, y23, x3, y3, tolerance, depth-1, out);
+	}
+}
@@ -0,0 +1,87 @@
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * This class writes numbers with 2 decimals, without trailing zeros (e.g. 12.5, -.05 or 3),
+ * straight into a writer without creating strings
+ * The numbers are given in hundredths, so they can be rounded once and subtracted (e.g.
+ * for relative coordinates) without adding up rounding errors
+ */
+public class DecimalWriter {
+
+	// Units of the numbers (hundredths)
+	public static final int SCALE = 100;
+
+	// Characters of the number being written
+	private final char[] digits = new char[24];
+
+	/**
+	 * Rounds a number to hundredths
+	 * @param value number to round
+	 * @return number of hundredths
+	 */
+	public static long round(double value) {
+		return Math.round(value*SCALE);
+	}
+
+	/**
+	 * Writes a number rounded to 2 decimals, followed by a space
+	 * @param out writer of the number
+	 * @param value number to write
+	 * @throws IOException
+	 */
+	public void write(Writer out, double value) throws IOException {
+		write(out, round(value));
+	}
+
+	/**
+	 * Writes a number given in hundredths, followed by a space
+	 * @param out writer of the number
+	 * @param value number of hundredths
+	 * @throws IOException
+	 */
+	public void write(Writer out, long value) throws IOException {
+		int pos = format(value);
+		out.write(digits, pos, digits.length-pos);
+	}
+
+	/**
+	 * Writes a number rounded to 2 decimals, without the space (e.g. in an attribute)
+	 * @param out writer of the number
+	 * @param value number to write
+	 * @throws IOException
+	 */
+	public void writeValue(Writer out, double value) throws IOException {
+		int pos = format(round(value));
+		out.write(digits, pos, digits.length-pos-1);
+	}
+
+	/**
+	 * Formats a number, followed by a space, at the end of the characters
+	 * @param value number of hundredths
+	 * @return position of the first character
+	 */
+	private int format(long value) {
+		int pos = digits.length;
+		digits[--pos] = ' ';
+		long integer = Math.abs(value / SCALE);
+		int fraction = (int) Math.abs(value % SCALE);
+		if (fraction != 0) {
+			if (fraction % 10 != 0)
+				digits[--pos] = (char) ('0' + fraction % 10);
+			digits[--pos] = (char) ('0' + fraction / 10);
+			digits[--pos] = '.';
+		}
+		if (integer != 0 || fraction == 0) {
+			do {
+				digits[--pos] = (char) ('0' + integer % 10);
+				integer /= 10;
+			} while (integer != 0);
+		}
+		if (value < 0)
+			digits[--pos] = '-';
+		return pos;
+	}
+}
@@ -0,0 +1,161 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * This class represents a document: a finished polyline and the visible parts of its drawing
+ * Documents are stored in a binary file, read and written through a memory mapping:
+ *
+ *   int    MAGIC ("CURV")
+ *   int    VERSION
+ *   int    visible parts (BEZIER, B_SPLINE, CATMULL_ROM, CONVEX_HULL and POLYLINE bits)
+ *   int    number of distinct points (vertices)
+ *   int    number of control points
+ *   int[]  x and y of each vertex
+ *   int[]  vertex index of each control point
+ *   byte[] one bit per vertex, set if the vertex is a boxed point
+ *
+ * Every int is big-endian. Opening a document copies the control points from the mapped
+ * file in bulk and creates its points; the polyline only indexes them when they are first used
+ */
+public class DocumentFile {
+
+	// Visible parts of the drawing
+	public static final int BEZIER = 1;
+	public static final int B_SPLINE = 2;
+	public static final int CATMULL_ROM = 4;
+	public static final int CONVEX_HULL = 8;
+	public static final int POLYLINE = 16;
+
+	private static final int MAGIC = 0x43555256;
+	private static final int VERSION = 1;
+	// Number of ints before the vertices
+	private static final int HEADER_INTS = 5;
+
+	private final Polyline polyline;
+	private final int visibleParts;
+
+	/**
+	 * Constructs a document
+	 * @param polyline polyline of the document
+	 * @param visibleParts visible parts of the drawing (sum of BEZIER, B_SPLINE, CATMULL_ROM, CONVEX_HULL and POLYLINE)
+	 */
+	public DocumentFile(Polyline polyline, int visibleParts) {
+		this.polyline = polyline;
+		this.visibleParts = visibleParts;
+	}
+
+	/**
+	 * Returns the polyline of the document
+	 * @return polyline of the document
+	 */
+	public Polyline getPolyline() {
+		return polyline;
+	}
+
+	/**
+	 * Returns if a part of the drawing is visible
+	 * @param part part of the drawing (BEZIER, B_SPLINE, CATMULL_ROM, CONVEX_HULL or POLYLINE)
+	 * @return true if the part is visible; false otherwise
+	 */
+	public boolean isVisible(int part) {
+		return (visibleParts & part) != 0;
+	}
+
+	/**
+	 * Returns the size of the file of a polyline
+	 * @param nVertices number of distinct points
+	 * @param nControlPoints number of control points
+	 * @return size of the file, in bytes
+	 */
+	private static long getFileSize(long nVertices, long nControlPoints) {
+		return 4*(HEADER_INTS + 2*nVertices + nControlPoints) + (nVertices + 7) / 8;
+	}
+
+	/**
+	 * Writes the document to a file
+	 * @param file file to write
+	 * @throws IOException if the file can't be written
+	 */
+	public void write(File file) throws IOException {
+		int nVertices = polyline.getVertexCount();
+		int nControlPoints = polyline.getControlPointCount();
+		long size = getFileSize(nVertices, nControlPoints);
+		if (size > Integer.MAX_VALUE)
+			throw new IOException("The document is too large");
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE,
+				StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+			IntBuffer ints = buffer.asIntBuffer();
+			ints.put(MAGIC).put(VERSION).put(visibleParts).put(nVertices).put(nControlPoints);
+			for (int i = 0;i<nVertices;i++) {
+				Point pt = polyline.getVertex(i);
+				ints.put(pt.getX()).put(pt.getY());
+			}
+			for (int i = 0;i<nControlPoints;i++)
+				ints.put(polyline.getVertexIndex(i));
+			int boxes = 4*(HEADER_INTS + 2*nVertices + nControlPoints);
+			for (int i = 0;i<nVertices;i++) {
+				if (polyline.getVertex(i).isBoxedPoint())
+					buffer.put(boxes + i/8, (byte) (buffer.get(boxes + i/8) | (1 << (i % 8))));
+			}
+			buffer.force();
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Reads a document from a file
+	 * @param file file to read
+	 * @return the read document
+	 * @throws IOException if the file can't be read or isn't a valid document
+	 */
+	public static DocumentFile read(File file) throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			long fileSize = channel.size();
+			if (fileSize < 4*HEADER_INTS)
+				throw new IOException("Not a curves document");
+			if (fileSize > Integer.MAX_VALUE)
+				throw new IOException("The document is too large");
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+			IntBuffer ints = buffer.asIntBuffer();
+			if (ints.get(0) != MAGIC)
+				throw new IOException("Not a curves document");
+			if (ints.get(1) != VERSION)
+				throw new IOException("Unsupported document version " + ints.get(1));
+			int visibleParts = ints.get(2);
+			int nVertices = ints.get(3);
+			int nControlPoints = ints.get(4);
+			if (nVertices < 0 || nControlPoints < 2 || getFileSize(nVertices, nControlPoints) != fileSize)
+				throw new IOException("Corrupted document");
+			List<Point> vertices = new ArrayList<Point>(nVertices);
+			int boxes = 4*(HEADER_INTS + 2*nVertices + nControlPoints);
+			for (int i = 0;i<nVertices;i++) {
+				Point pt = new Point(ints.get(HEADER_INTS + 2*i), ints.get(HEADER_INTS + 2*i + 1));
+				if ((buffer.get(boxes + i/8) & (1 << (i % 8))) != 0)
+					pt.putInBox();
+				vertices.add(pt);
+			}
+			int[] sequence = new int[nControlPoints];
+			ints.position(HEADER_INTS + 2*nVertices);
+			ints.get(sequence);
+			for (int i = 0;i<nControlPoints;i++) {
+				if (sequence[i] < 0 || sequence[i] >= nVertices)
+					throw new IOException("Corrupted document");
+			}
+			return new DocumentFile(new Polyline(vertices, sequence), visibleParts);
+		} finally {
+			channel.close();
+		}
+	}
+}
@@ -0,0 +1,235 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * This class exports a drawing (the polyline and its curves) to exporters of any format
+ * The polyline is walked once, converting its points with a page transformation, and each
+ * curve segment is sent as the Bezier curve of the same segment, so the curves are exact
+ * Several formats can be written in the same walk (see TeeExporter)
+ */
+public class DrawingExport {
+
+	// Formats that can be exported (the extensions of their files)
+	public static final String[] FORMATS = {"ps", "svg", "pdf"};
+
+	// Size of the buffers of the written files
+	static final int BUFFER_SIZE = 64*1024;
+	// Number of exported segments between progress reports
+	private static final int PROGRESS_STEP = 4096;
+
+	private final Polyline polyline;
+	private final PageTransform transform;
+
+	// Control variables to know if it will export the polyline and/or each curve
+	private final boolean drawLine;
+	private final boolean drawBezier;
+	private final boolean drawBSpline;
+	private final boolean drawCatmullRom;
+
+	// Receiver of the progress of the export (can be null) and the segments exported
+	private TaskProgress progress;
+	private long done;
+	private long total;
+
+	/**
+	 * Constructs an export of a drawing
+	 * @param polyline polyline to export (it must not change during the export, see Polyline.snapshot())
+	 * @param transform transformation from the panel to the page
+	 * @param drawLine if the polyline will be exported
+	 * @param drawBezier if the Bezier curve will be exported
+	 * @param drawBSpline if the B-Spline curve will be exported
+	 * @param drawCatmullRom if the Catmull-Rom curve will be exported
+	 */
+	public DrawingExport(Polyline polyline, PageTransform transform, boolean drawLine, boolean drawBezier,
+			boolean drawBSpline, boolean drawCatmullRom) {
+		this.polyline = polyline;
+		this.transform = transform;
+		this.drawLine = drawLine;
+		this.drawBezier = drawBezier;
+		this.drawBSpline = drawBSpline;
+		this.drawCatmullRom = drawCatmullRom;
+	}
+
+	/**
+	 * Returns the format of a file, given by its extension
+	 * @param file exported file
+	 * @return format of the file (one of FORMATS); null if the extension isn't a format
+	 */
+	public static String getFormat(File file) {
+		String name = file.getName();
+		String extension = name.substring(name.lastIndexOf('.') + 1).toLowerCase();
+		for (String format : FORMATS) {
+			if (format.equals(extension))
+				return format;
+		}
+		return null;
+	}
+
+	/**
+	 * Creates the exporter of a format
+	 * @param format format of the exporter (one of FORMATS)
+	 * @param out stream where the document is written
+	 * @param postScriptEncoding encoding of the PostScript (see PostScriptExporter)
+	 * @return the exporter
+	 * @throws IllegalArgumentException if the format is unknown
+	 */
+	public static Exporter createExporter(String format, OutputStream out, int postScriptEncoding) {
+		if (format.equals("ps"))
+			return new PostScriptExporter(out, postScriptEncoding);
+		if (format.equals("svg"))
+			return new SVGExporter(out);
+		if (format.equals("pdf"))
+			return new PDFExporter(out);
+		throw new IllegalArgumentException("Unknown format " + format);
+	}
+
+	/**
+	 * Creates a buffered writer of the text of a document
+	 * @param out stream where the text is written
+	 * @return the writer
+	 */
+	static Writer createWriter(OutputStream out) {
+		return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.ISO_8859_1), BUFFER_SIZE);
+	}
+
+	/**
+	 * Counts an exported segment and reports the progress from time to time
+	 * @throws CancellationException if the receiver of the progress cancelled the export
+	 */
+	private void advance() {
+		done++;
+		if (progress != null && done % PROGRESS_STEP == 0 && !progress.update(done, total))
+			throw new CancellationException("The export was cancelled");
+	}
+
+	/**
+	 * Exports the segments of a curve as Bezier curves
+	 * The page coordinates are an affine transformation of the panel ones, so the control
+	 * points can be converted before the basis
+	 * @param exporter exporter of the drawing
+	 * @param basis basis of the curve
+	 * @param nCurves number of segments
+	 * @param step control points between the starts of two segments (segment i uses the
+	 *             control points i*step to i*step+3)
+	 * @param style how the curve is stroked
+	 * @throws IOException
+	 */
+	private void exportCurves(Exporter exporter, CubicBasis basis, int nCurves, int step, PathStyle style)
+			throws IOException {
+		if (nCurves == 0)
+			return;
+		double[] xs = new double[4];
+		double[] ys = new double[4];
+		exporter.startPath(style);
+		for (int n = 0;n<nCurves;n++) {
+			for (int k = 0;k<4;k++) {
+				Point pt = polyline.getControlPoint(n*step + k);
+				xs[k] = transform.getX(pt.getX());
+				ys[k] = transform.getY(pt.getY());
+			}
+			double[] bx = basis.getBezierControlPoints(xs[0], xs[1], xs[2], xs[3]);
+			double[] by = basis.getBezierControlPoints(ys[0], ys[1], ys[2], ys[3]);
+			// Consecutive segments are joined, so only the first one moves
+			if (n == 0)
+				exporter.moveTo(bx[0], by[0]);
+			exporter.curveTo(bx[1], by[1], bx[2], by[2], bx[3], by[3]);
+			advance();
+		}
+		exporter.endPath();
+	}
+
+	/**
+	 * Exports the drawing
+	 * @param exporter exporter of the drawing
+	 * @throws IOException
+	 */
+	public void export(Exporter exporter) throws IOException {
+		export(exporter, null);
+	}
+
+	/**
+	 * Exports the drawing, reporting the number of exported segments
+	 * @param exporter exporter of the drawing
+	 * @param progress receiver of the progress (can be null); the export stops if it cancels
+	 * @throws IOException
+	 * @throws CancellationException if the export was cancelled
+	 */
+	public void export(Exporter exporter, TaskProgress progress) throws IOException {
+		int nPoints = polyline.getControlPointCount();
+		int nBezier = drawBezier ? Renderer.getBezierCurveCount(polyline) : 0;
+		int nBSpline = drawBSpline ? Renderer.getBSplineCurveCount(polyline) : 0;
+		int nCatmullRom = drawCatmullRom ? Renderer.getCatmullRomCurveCount(polyline) : 0;
+		this.progress = progress;
+		done = 0;
+		total = (drawLine ? nPoints : 0) + nBezier + nBSpline + nCatmullRom;
+		exporter.startDocument(transform.getWidth(), transform.getHeight());
+		if (drawLine && nPoints > 0) {
+			exporter.startPath(PathStyle.POLYLINE);
+			for (int j = 0;j<nPoints;j++) {
+				Point pt = polyline.getControlPoint(j);
+				if (j == 0)
+					exporter.moveTo(transform.getX(pt.getX()), transform.getY(pt.getY()));
+				else
+					exporter.lineTo(transform.getX(pt.getX()), transform.getY(pt.getY()));
+				advance();
+			}
+			exporter.endPath();
+		}
+		exportCurves(exporter, CubicBasis.BEZIER, nBezier, 3, PathStyle.BEZIER);
+		exportCurves(exporter, CubicBasis.B_SPLINE, nBSpline, 1, PathStyle.B_SPLINE);
+		exportCurves(exporter, CubicBasis.CATMULL_ROM, nCatmullRom, 1, PathStyle.CATMULL_ROM);
+		exporter.endDocument();
+		if (progress != null)
+			progress.update(total, total);
+	}
+
+	/**
+	 * Exports the drawing to files in one walk, each in the format of its extension
+	 * If the export fails or is cancelled, the partial files are deleted
+	 * @param files files to write
+	 * @param postScriptEncoding encoding of the PostScript files (see PostScriptExporter)
+	 * @param progress receiver of the progress (can be null); the export stops if it cancels
+	 * @throws IOException
+	 * @throws IllegalArgumentException if the extension of a file isn't a format
+	 * @throws CancellationException if the export was cancelled
+	 */
+	public void exportToFiles(List<File> files, int postScriptEncoding, TaskProgress progress) throws IOException {
+		List<String> formats = new ArrayList<String>();
+		for (File file : files) {
+			String format = getFormat(file);
+			if (format == null)
+				throw new IllegalArgumentException("Unknown format of " + file.getName());
+			formats.add(format);
+		}
+		List<OutputStream> streams = new ArrayList<OutputStream>();
+		boolean exported = false;
+		try {
+			List<Exporter> exporters = new ArrayList<Exporter>();
+			for (int i = 0;i<files.size();i++) {
+				OutputStream out = new FileOutputStream(files.get(i));
+				streams.add(out);
+				exporters.add(createExporter(formats.get(i), out, postScriptEncoding));
+			}
+			export(exporters.size() == 1 ? exporters.get(0) : new TeeExporter(exporters), progress);
+			exported = true;
+		} finally {
+			for (OutputStream out : streams)
+				out.close();
+			if (!exported) {
+				for (int i = 0;i<streams.size();i++)
+					files.get(i).delete();
+			}
+		}
+	}
+}
@@ -0,0 +1,72 @@
+import java.io.IOException;
+
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * This interface represents a writer of an exported drawing in some format (e.g. PostScript,
+ * SVG or PDF)
+ * The drawing is streamed to the exporter by DrawingExport, as a page with stroked paths
+ * of lines and Bezier curves, while the polyline is walked:
+ *
+ *   startDocument (startPath moveTo (lineTo | curveTo)* endPath)* endDocument
+ *
+ * The coordinates are in points (1/72 inch), with the origin at the bottom left corner
+ * of the page and y growing upwards (as in PostScript and PDF)
+ */
+public interface Exporter {
+
+	/**
+	 * Starts the document
+	 * @param width width of the page
+	 * @param height height of the page
+	 * @throws IOException if the document can't be written
+	 */
+	void startDocument(double width, double height) throws IOException;
+
+	/**
+	 * Starts a path
+	 * @param style how the path is stroked
+	 * @throws IOException if the document can't be written
+	 */
+	void startPath(PathStyle style) throws IOException;
+
+	/**
+	 * Moves to the first point of the path
+	 * @param x x coordinate
+	 * @param y y coordinate
+	 * @throws IOException if the document can't be written
+	 */
+	void moveTo(double x, double y) throws IOException;
+
+	/**
+	 * Adds a line from the current point
+	 * @param x x coordinate of the end of the line
+	 * @param y y coordinate of the end of the line
+	 * @throws IOException if the document can't be written
+	 */
+	void lineTo(double x, double y) throws IOException;
+
+	/**
+	 * Adds a Bezier curve from the current point
+	 * @param x1 x coordinate of the second control point
+	 * @param y1 y coordinate of the second control point
+	 * @param x2 x coordinate of the third control point
+	 * @param y2 y coordinate of the third control point
+	 * @param x3 x coordinate of the end of the curve
+	 * @param y3 y coordinate of the end of the curve
+	 * @throws IOException if the document can't be written
+	 */
+	void curveTo(double x1, double y1, double x2, double y2, double x3, double y3) throws IOException;
+
+	/**
+	 * Ends the path, stroking it
+	 * @throws IOException if the document can't be written
+	 */
+	void endPath() throws IOException;
+
+	/**
+	 * Ends the document and flushes it (the stream where it is written isn't closed)
+	 * @throws IOException if the document can't be written
+	 */
+	void endDocument() throws IOException;
+}
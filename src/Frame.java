@@ -1,10 +1,18 @@
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.swing.ButtonGroup;
 import javax.swing.JCheckBoxMenuItem;
+import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JMenu;
 import javax.swing.JMenuBar;
@@ -12,6 +20,9 @@ import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.JRadioButtonMenuItem;
 import javax.swing.JSeparator;
+import javax.swing.ProgressMonitor;
+import javax.swing.SwingUtilities;
+import javax.swing.filechooser.FileNameExtensionFilter;
 
 /**
  * @author Alexandre Martins Garcia, 34625 G23 P5
@@ -30,9 +41,25 @@ public class Frame extends JFrame {
 	private static final int WIDTH = 800;
 	private static final int HEIGHT = 600;
 
+	// Extension of the documents
+	private static final String EXTENSION = "curves";
+	// File suggested for the exported drawings
+	private static final String EXPORT_FILE = "Print.ps";
+
+	// Run the long tasks outside of the event thread, each kind on its own thread (so an
+	// import doesn't wait for a long export, or the other way round)
+	private final ExecutorService importer = Executors.newSingleThreadExecutor();
+	private final ExecutorService exporter = Executors.newSingleThreadExecutor();
+
 	// Items that can be activated/disabled by an external call (from panel)
 	private List<JMenuItem> activableItems;
 	private JMenuItem printItem;
+	private JMenuItem saveItem;
+	// Item of the number of points being used (selected again if Other... is cancelled)
+	private JRadioButtonMenuItem pointsItem;
+
+	// Encoding of the exported PostScript (see PostScriptExporter)
+	private int postScriptEncoding = PostScriptExporter.PLAIN;
 
 	/**
 	 * Constructs a Frame
@@ -41,6 +68,7 @@ public class Frame extends JFrame {
 		setSize(WIDTH, HEIGHT);
 
 		JMenuBar menuBar = new JMenuBar();
+		activableItems = new LinkedList<JMenuItem>();
 		menuBar.add(createFileMenu());
 		menuBar.add(createPointsMenu());
 		menuBar.add(createCurvesMenu());
@@ -59,6 +87,12 @@ public class Frame extends JFrame {
 	private JMenu createFileMenu() {
 		JMenu menu = new JMenu("File");
 		menu.add(createFileMenuItem("New"));
+		menu.add(createFileMenuItem("Open..."));
+		menu.add(createFileMenuItem("Import control points..."));
+		saveItem = createFileMenuItem("Save...");
+		saveItem.setEnabled(false);
+		activableItems.add(saveItem);
+		menu.add(saveItem);
 		printItem = createFileMenuItem("Print to PostScript");
 		printItem.setEnabled(false);
 		menu.add(printItem);
@@ -72,12 +106,14 @@ public class Frame extends JFrame {
 	 * 
 	 * @param success
 	 *            success state
+	 * @param file
+	 *            file where the print was written
 	 */
-	public void showInformationMessage(boolean success) {
+	public void showInformationMessage(boolean success, File file) {
 		if (success)
 			JOptionPane
 					.showMessageDialog(null,
-							"The print was successful.\nIt was written to file Print.ps");
+							"The print was successful.\nIt was written to file " + file.getName());
 		else
 			JOptionPane
 					.showMessageDialog(null,
@@ -99,6 +135,12 @@ public class Frame extends JFrame {
 				if (e.getActionCommand().equals("New")) {
 					disableItems();
 					panel.clearDraw();
+				} else if (e.getActionCommand().equals("Open...")) {
+					openDocument();
+				} else if (e.getActionCommand().equals("Import control points...")) {
+					importControlPoints();
+				} else if (e.getActionCommand().equals("Save...")) {
+					saveDocument();
 				} else if (e.getActionCommand().equals("Print to PostScript")) {
 					JOptionPane
 							.showMessageDialog(
@@ -116,6 +158,217 @@ public class Frame extends JFrame {
 		return item;
 	}
 
+	/**
+	 * Creates a file chooser of documents
+	 * 
+	 * @return the created file chooser
+	 */
+	private JFileChooser createDocumentChooser() {
+		JFileChooser chooser = new JFileChooser();
+		chooser.setFileFilter(new FileNameExtensionFilter("Curves documents", EXTENSION));
+		return chooser;
+	}
+
+	/**
+	 * Asks a document and shows it
+	 */
+	private void openDocument() {
+		JFileChooser chooser = createDocumentChooser();
+		if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION)
+			return;
+		DocumentFile document;
+		try {
+			document = DocumentFile.read(chooser.getSelectedFile());
+		} catch (IOException e) {
+			JOptionPane.showMessageDialog(this,
+					"The document could not be opened.\n" + e.getMessage());
+			return;
+		}
+		showDocument(document);
+	}
+
+	/**
+	 * Shows a document in the panel and updates the items to its visible parts
+	 * 
+	 * @param document
+	 *            document to show
+	 */
+	private void showDocument(DocumentFile document) {
+		panel.setDocument(document);
+		activateItems();
+		for (JMenuItem item : activableItems) {
+			if (item.getText().equals("Bzier"))
+				item.setSelected(document.isVisible(DocumentFile.BEZIER));
+			else if (item.getText().equals("B-spline"))
+				item.setSelected(document.isVisible(DocumentFile.B_SPLINE));
+			else if (item.getText().equals("Catmull-Rom"))
+				item.setSelected(document.isVisible(DocumentFile.CATMULL_ROM));
+			else if (item.getText().equals("Convex Hull"))
+				item.setSelected(document.isVisible(DocumentFile.CONVEX_HULL));
+			else if (item.getText().equals("Polyline"))
+				item.setSelected(document.isVisible(DocumentFile.POLYLINE));
+		}
+		if (document.isVisible(DocumentFile.POLYLINE | DocumentFile.BEZIER | DocumentFile.B_SPLINE | DocumentFile.CATMULL_ROM))
+			activatePrintItem();
+		else
+			disablePrintItem();
+	}
+
+	/**
+	 * Asks a control points file (see ControlPointsFile) and shows its polyline
+	 * The file is read in background, with a progress dialog that can cancel it
+	 */
+	private void importControlPoints() {
+		JFileChooser chooser = new JFileChooser();
+		if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION)
+			return;
+		final File file = chooser.getSelectedFile();
+		final MonitorProgress progress = new MonitorProgress("Importing " + file.getName());
+		importer.execute(new Runnable() {
+			public void run() {
+				try {
+					final Polyline polyline = ControlPointsFile.read(file, progress);
+					SwingUtilities.invokeLater(new Runnable() {
+						public void run() {
+							progress.close();
+							showDocument(new DocumentFile(polyline, DocumentFile.POLYLINE));
+						}
+					});
+				} catch (CancellationException e) {
+					progress.close(null);
+				} catch (IOException e) {
+					progress.close("The control points could not be imported.\n" + e.getMessage());
+				}
+			}
+		});
+	}
+
+	/**
+	 * Asks a file (PostScript, SVG or PDF, by its extension) and exports a drawing to it
+	 * in background, with a progress dialog that can cancel it
+	 * The export must use a snapshot of the polyline (see Polyline.snapshot()), so the
+	 * drawing can be edited while it is written
+	 * 
+	 * @param export
+	 *            export of the drawing
+	 */
+	public void export(final DrawingExport export) {
+		JFileChooser chooser = new JFileChooser();
+		chooser.setSelectedFile(new File(EXPORT_FILE));
+		chooser.setFileFilter(new FileNameExtensionFilter("PostScript, SVG or PDF", DrawingExport.FORMATS));
+		if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION)
+			return;
+		File chosen = chooser.getSelectedFile();
+		if (DrawingExport.getFormat(chosen) == null)
+			chosen = new File(chosen.getPath() + "." + DrawingExport.FORMATS[0]);
+		final File file = chosen;
+		final int encoding = postScriptEncoding;
+		final MonitorProgress progress = new MonitorProgress("Printing to " + file.getName());
+		exporter.execute(new Runnable() {
+			public void run() {
+				try {
+					export.exportToFiles(Collections.singletonList(file), encoding, progress);
+					SwingUtilities.invokeLater(new Runnable() {
+						public void run() {
+							progress.close();
+							showInformationMessage(true, file);
+						}
+					});
+				} catch (CancellationException e) {
+					progress.close(null);
+				} catch (IOException e) {
+					SwingUtilities.invokeLater(new Runnable() {
+						public void run() {
+							progress.close();
+							showInformationMessage(false, file);
+						}
+					});
+				}
+			}
+		});
+	}
+
+	/**
+	 * This class shows the progress of a background task in a progress dialog
+	 * It is updated by the thread of the task, and cancels it when the dialog is cancelled
+	 */
+	private class MonitorProgress implements TaskProgress {
+
+		private final ProgressMonitor monitor;
+		// Set in the event thread when the dialog is cancelled
+		private final AtomicBoolean cancelled = new AtomicBoolean(false);
+		// Last reported percentage (only used by the thread of the task)
+		private int percent = -1;
+
+		/**
+		 * Constructs the progress of a task and its dialog (in the event thread)
+		 * 
+		 * @param message
+		 *            description of the task
+		 */
+		public MonitorProgress(String message) {
+			monitor = new ProgressMonitor(Frame.this, message, null, 0, 100);
+		}
+
+		public boolean update(long done, long total) {
+			final int current = total == 0 ? 100 : (int) (100*done / total);
+			if (current != percent) {
+				percent = current;
+				SwingUtilities.invokeLater(new Runnable() {
+					public void run() {
+						monitor.setProgress(current);
+						if (monitor.isCanceled())
+							cancelled.set(true);
+					}
+				});
+			}
+			return !cancelled.get();
+		}
+
+		/**
+		 * Closes the dialog (must be called in the event thread)
+		 */
+		public void close() {
+			monitor.close();
+		}
+
+		/**
+		 * Closes the dialog in the event thread and shows a message
+		 * 
+		 * @param message
+		 *            message to show (null to show none)
+		 */
+		public void close(final String message) {
+			SwingUtilities.invokeLater(new Runnable() {
+				public void run() {
+					monitor.close();
+					if (message != null)
+						JOptionPane.showMessageDialog(Frame.this, message);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Asks a file and saves the document in it
+	 */
+	private void saveDocument() {
+		if (!panel.isPolylineFinished())
+			return;
+		JFileChooser chooser = createDocumentChooser();
+		if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION)
+			return;
+		File file = chooser.getSelectedFile();
+		if (file.getName().indexOf('.') < 0)
+			file = new File(file.getPath() + "." + EXTENSION);
+		try {
+			panel.getDocument().write(file);
+		} catch (IOException e) {
+			JOptionPane.showMessageDialog(this,
+					"The document could not be saved.\n" + e.getMessage());
+		}
+	}
+
 	/**
 	 * Creates the Points menu
 	 * 
@@ -126,6 +379,7 @@ public class Frame extends JFrame {
 		ButtonGroup group = new ButtonGroup();
 		JRadioButtonMenuItem menuItem = createPointsMenuItem("4 points");
 		menuItem.setSelected(true);
+		pointsItem = menuItem;
 		group.add(menuItem);
 		menu.add(menuItem);
 		menuItem = createPointsMenuItem("7 points");
@@ -134,6 +388,13 @@ public class Frame extends JFrame {
 		menuItem = createPointsMenuItem("10 points");
 		group.add(menuItem);
 		menu.add(menuItem);
+		menu.add(new JSeparator());
+		menuItem = createPointsMenuItem("Other...");
+		group.add(menuItem);
+		menu.add(menuItem);
+		menuItem = createPointsMenuItem("Open (right click to finish)");
+		group.add(menuItem);
+		menu.add(menuItem);
 		return menu;
 	}
 
@@ -143,7 +404,6 @@ public class Frame extends JFrame {
 	 * @return the created menu
 	 */
 	private JMenu createCurvesMenu() {
-		activableItems = new LinkedList<JMenuItem>();
 		JMenu menu = new JMenu("Curves");
 		JCheckBoxMenuItem item;
 		item = createCurvesMenuItem("Bzier");
@@ -182,9 +442,65 @@ public class Frame extends JFrame {
 		item.setEnabled(false);
 		activableItems.add(item);
 		menu.add(item);
+		menu.add(new JSeparator());
+		item = createOptionsMenuItem("Adaptive tessellation");
+		item.setSelected(false);
+		menu.add(item);
+		item = createOptionsMenuItem("Java2D curves");
+		item.setSelected(false);
+		menu.add(item);
+		item = createOptionsMenuItem("Parallel tessellation");
+		item.setSelected(false);
+		menu.add(item);
+		menu.add(new JSeparator());
+		menu.add(createEncodingMenu());
 		return menu;
 	}
 
+	/**
+	 * Creates the PostScript encoding menu (in Options menu)
+	 * 
+	 * @return the created menu
+	 */
+	private JMenu createEncodingMenu() {
+		JMenu menu = new JMenu("PostScript encoding");
+		ButtonGroup group = new ButtonGroup();
+		JRadioButtonMenuItem item = createEncodingMenuItem("Plain");
+		item.setSelected(true);
+		group.add(item);
+		menu.add(item);
+		item = createEncodingMenuItem("Compact");
+		group.add(item);
+		menu.add(item);
+		item = createEncodingMenuItem("Compressed");
+		group.add(item);
+		menu.add(item);
+		return menu;
+	}
+
+	/**
+	 * Creates an item in PostScript encoding menu
+	 * 
+	 * @param text
+	 *            text of the item
+	 * @return the created item
+	 */
+	private JRadioButtonMenuItem createEncodingMenuItem(String text) {
+		JRadioButtonMenuItem item = new JRadioButtonMenuItem(text);
+		class ListenerItemMenu implements ActionListener {
+			public void actionPerformed(ActionEvent event) {
+				if (event.getActionCommand().equals("Plain"))
+					postScriptEncoding = PostScriptExporter.PLAIN;
+				else if (event.getActionCommand().equals("Compact"))
+					postScriptEncoding = PostScriptExporter.COMPACT;
+				else if (event.getActionCommand().equals("Compressed"))
+					postScriptEncoding = PostScriptExporter.COMPRESSED;
+			}
+		}
+		item.addActionListener(new ListenerItemMenu());
+		return item;
+	}
+
 	/**
 	 * Creates the Help menu
 	 * 
@@ -223,7 +539,22 @@ public class Frame extends JFrame {
 					panel.setNumPoints(10);
 					panel.clearDraw();
 
+				} else if (event.getActionCommand().equals("Other...")) {
+					int num = askNumPoints();
+					if (num < 4) {
+						// The number of points didn't change
+						pointsItem.setSelected(true);
+						return;
+					}
+					disableItems();
+					panel.setNumPoints(num);
+					panel.clearDraw();
+				} else if (event.getActionCommand().equals("Open (right click to finish)")) {
+					disableItems();
+					panel.setNumPoints(Polyline.OPEN_ENDED);
+					panel.clearDraw();
 				}
+				pointsItem = item;
 			}
 		}
 
@@ -232,6 +563,27 @@ public class Frame extends JFrame {
 		return item;
 	}
 
+	/**
+	 * Asks the number of points of the polyline
+	 * 
+	 * @return the number of points; 0 if it was cancelled or isn't valid
+	 */
+	private int askNumPoints() {
+		String text = JOptionPane.showInputDialog(this,
+				"Number of points of the polyline (at least 4)");
+		if (text == null)
+			return 0;
+		try {
+			int num = Integer.parseInt(text.trim());
+			if (num >= 4)
+				return num;
+		} catch (NumberFormatException e) {
+		}
+		JOptionPane.showMessageDialog(this,
+				"The number of points must be an integer of at least 4");
+		return 0;
+	}
+
 	/**
 	 * Creates an item in Options menu
 	 * 
@@ -248,6 +600,12 @@ public class Frame extends JFrame {
 					panel.changeConvexHullVisibility();
 				} else if (event.getActionCommand().equals("Polyline")) {
 					panel.changePolylineVisibility();
+				} else if (event.getActionCommand().equals("Adaptive tessellation")) {
+					panel.changeAdaptiveTessellation();
+				} else if (event.getActionCommand().equals("Java2D curves")) {
+					panel.changeCubicCurves();
+				} else if (event.getActionCommand().equals("Parallel tessellation")) {
+					panel.changeParallelTessellation();
 				}
 			}
 		}
@@ -0,0 +1,87 @@
+import java.awt.AlphaComposite;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * This class represents an off-screen drawing layer (e.g. the convex hull or a curve family)
+ * Its content is kept between drawings and only the invalidated area is drawn again
+ */
+public class Layer {
+
+	private BufferedImage image;
+	// Area that has to be drawn again; null if the layer is up to date
+	private Rectangle dirty;
+
+	/**
+	 * Constructs an empty layer
+	 */
+	public Layer() {
+		image = null;
+		dirty = null;
+	}
+
+	/**
+	 * Marks the whole layer to be drawn again
+	 */
+	public void invalidate() {
+		if (image != null)
+			dirty = new Rectangle(0, 0, image.getWidth(), image.getHeight());
+	}
+
+	/**
+	 * Marks an area of the layer to be drawn again
+	 * @param area area to draw again
+	 */
+	public void invalidate(Rectangle area) {
+		if (dirty == null)
+			dirty = new Rectangle(area);
+		else
+			dirty.add(area);
+	}
+
+	/**
+	 * Prepares the layer to be drawn again. The invalidated area is cleared and the returned
+	 * graphic is clipped to it, so only that area needs to be drawn
+	 * If the layer doesn't have the given size, a new (fully invalidated) image is created
+	 * @param gc graphics configuration of the component (can be null)
+	 * @param width width of the layer
+	 * @param height height of the layer
+	 * @return graphic in which the invalidated area must be drawn (it must be disposed);
+	 * null if the layer is up to date
+	 */
+	public Graphics2D update(GraphicsConfiguration gc, int width, int height) {
+		if (image == null || image.getWidth() != width || image.getHeight() != height) {
+			if (gc != null)
+				image = gc.createCompatibleImage(Math.max(width, 1), Math.max(height, 1), Transparency.TRANSLUCENT);
+			else
+				image = new BufferedImage(Math.max(width, 1), Math.max(height, 1), BufferedImage.TYPE_INT_ARGB);
+			invalidate();
+		}
+		if (dirty == null)
+			return null;
+
+		Graphics2D g = image.createGraphics();
+		g.clip(dirty);
+		dirty = null;
+		// Clears the invalidated area to transparent
+		Composite composite = g.getComposite();
+		g.setComposite(AlphaComposite.Clear);
+		g.fill(g.getClipBounds());
+		g.setComposite(composite);
+		return g;
+	}
+
+	/**
+	 * Returns the image of the layer
+	 * @return image of the layer; null if it was never updated
+	 */
+	public BufferedImage getImage() {
+		return image;
+	}
+}
@@ -1,15 +1,23 @@
 import javax.swing.JFrame;
 /**
  * @author Alexandre Martins Garcia, 34625 G23 P5
- * 
+ *
  *         This is the Main class
+ *         With --batch it converts control points files without a display (see BatchRenderer)
  */
 public class Main {
 
 	public static void main(String[] args) {
+		if (args.length > 0 && args[0].equals("--batch")) {
+			// Must be set before any AWT class is used
+			System.setProperty("java.awt.headless", "true");
+			String[] batchArgs = new String[args.length-1];
+			System.arraycopy(args, 1, batchArgs, 0, batchArgs.length);
+			System.exit(BatchRenderer.run(batchArgs));
+		}
 		Frame frame = new Frame();				// Create the application frame
-		frame.setTitle("Curves Editor"); 
+		frame.setTitle("Curves Editor");
 		frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 		frame.setVisible(true);									// Turn on the frame's visibility
 	}
-}	
+}
@@ -0,0 +1,208 @@
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * This class represents an exporter of PDF
+ * The document has a single page, whose content stream is compressed with Flate while the
+ * drawing is written; its length is written after it (as an indirect object), so the
+ * document is written in a single pass
+ */
+public class PDFExporter implements Exporter {
+
+	// Objects of the document
+	private static final int CATALOG = 1;
+	private static final int PAGES = 2;
+	private static final int PAGE = 3;
+	private static final int CONTENTS = 4;
+	private static final int LENGTH = 5;
+
+	private final CountingOutputStream out;
+	private final DecimalWriter numbers = new DecimalWriter();
+	// Writer of the objects and writer of the content stream
+	private Writer text;
+	private Writer drawing;
+	private Deflater deflater;
+	private DeflaterOutputStream flate;
+	// Offsets of the objects and of the content stream
+	private final long[] offsets = new long[LENGTH+1];
+	private long streamStart;
+
+	/**
+	 * Constructs a PDF exporter
+	 * @param out stream where the PDF is written
+	 */
+	public PDFExporter(OutputStream out) {
+		this.out = new CountingOutputStream(out);
+	}
+
+	/**
+	 * Starts an object, keeping its offset for the cross-reference table
+	 * @param number number of the object
+	 * @throws IOException
+	 */
+	private void startObject(int number) throws IOException {
+		text.flush();
+		offsets[number] = out.getCount();
+		text.write(number + " 0 obj\n");
+	}
+
+	/**
+	 * Writes the coordinates of a point
+	 * @param x x coordinate
+	 * @param y y coordinate
+	 * @throws IOException
+	 */
+	private void writePoint(double x, double y) throws IOException {
+		numbers.write(drawing, x);
+		numbers.write(drawing, y);
+	}
+
+	/* (non-Javadoc)
+	 * @see Exporter#startDocument(double, double)
+	 */
+	public void startDocument(double width, double height) throws IOException {
+		text = DrawingExport.createWriter(out);
+		// The binary comment tells that the file has binary data
+		text.write("%PDF-1.4\n%\u00E2\u00E3\u00CF\u00D3\n");
+		startObject(CATALOG);
+		text.write("<< /Type /Catalog /Pages " + PAGES + " 0 R >>\nendobj\n");
+		startObject(PAGES);
+		text.write("<< /Type /Pages /Kids [" + PAGE + " 0 R] /Count 1 >>\nendobj\n");
+		startObject(PAGE);
+		text.write("<< /Type /Page /Parent " + PAGES + " 0 R /MediaBox [0 0 ");
+		numbers.write(text, width);
+		numbers.write(text, height);
+		text.write("] /Contents " + CONTENTS + " 0 R /Resources << >> >>\nendobj\n");
+		startObject(CONTENTS);
+		text.write("<< /Length " + LENGTH + " 0 R /Filter /FlateDecode >>\nstream\n");
+		text.flush();
+		streamStart = out.getCount();
+		// The fastest level is several times faster than the default, for a slightly larger file
+		deflater = new Deflater(Deflater.BEST_SPEED);
+		flate = new DeflaterOutputStream(out, deflater, DrawingExport.BUFFER_SIZE);
+		drawing = DrawingExport.createWriter(flate);
+	}
+
+	/* (non-Javadoc)
+	 * @see Exporter#startPath(PathStyle)
+	 */
+	public void startPath(PathStyle style) throws IOException {
+		// The graphics state can't change inside a path object, so the style is set before it
+		drawing.write("q\n");
+		if (style.getDash() > 0) {
+			drawing.write("[");
+			numbers.write(drawing, style.getDash());
+			numbers.write(drawing, style.getDash());
+			drawing.write("] 0 d\n");
+		}
+		numbers.write(drawing, style.getWidth());
+		drawing.write("w\n");
+		numbers.write(drawing, style.getRed());
+		numbers.write(drawing, style.getGreen());
+		numbers.write(drawing, style.getBlue());
+		drawing.write("RG\n");
+	}
+
+	/* (non-Javadoc)
+	 * @see Exporter#moveTo(double, double)
+	 */
+	public void moveTo(double x, double y) throws IOException {
+		writePoint(x, y);
+		drawing.write("m\n");
+	}
+
+	/* (non-Javadoc)
+	 * @see Exporter#lineTo(double, double)
+	 */
+	public void lineTo(double x, double y) throws IOException {
+		writePoint(x, y);
+		drawing.write("l\n");
+	}
+
+	/* (non-Javadoc)
+	 * @see Exporter#curveTo(double, double, double, double, double, double)
+	 */
+	public void curveTo(double x1, double y1, double x2, double y2, double x3, double y3) throws IOException {
+		writePoint(x1, y1);
+		writePoint(x2, y2);
+		writePoint(x3, y3);
+		drawing.write("c\n");
+	}
+
+	/* (non-Javadoc)
+	 * @see Exporter#endPath()
+	 */
+	public void endPath() throws IOException {
+		drawing.write("S\nQ\n");
+	}
+
+	/* (non-Javadoc)
+	 * @see Exporter#endDocument()
+	 */
+	public void endDocument() throws IOException {
+		try {
+			drawing.flush();
+			flate.finish();
+		} finally {
+			deflater.end();
+		}
+		long length = out.getCount() - streamStart;
+		text.write("\nendstream\nendobj\n");
+		startObject(LENGTH);
+		text.write(length + "\nendobj\n");
+		text.flush();
+		long xref = out.getCount();
+		text.write("xref\n0 " + (LENGTH+1) + "\n0000000000 65535 f \n");
+		for (int i = 1;i<=LENGTH;i++)
+			text.write(String.format("%010d 00000 n \n", offsets[i]));
+		text.write("trailer\n<< /Size " + (LENGTH+1) + " /Root " + CATALOG + " 0 R >>\nstartxref\n" + xref + "\n%%EOF\n");
+		text.flush();
+	}
+
+	/**
+	 * This class represents an output stream that counts the written bytes (to know the
+	 * offsets of the objects)
+	 */
+	private static class CountingOutputStream extends FilterOutputStream {
+
+		private long count;
+
+		/**
+		 * Constructs a counting output stream
+		 * @param out stream where the bytes are written
+		 */
+		public CountingOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		/**
+		 * Returns the number of written bytes
+		 * @return number of written bytes
+		 */
+		public long getCount() {
+			return count;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.io.FilterOutputStream#write(int)
+		 */
+		public void write(int b) throws IOException {
+			out.write(b);
+			count++;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.io.FilterOutputStream#write(byte[], int, int)
+		 */
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			count += len;
+		}
+	}
+}
@@ -0,0 +1,114 @@
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * This class represents the transformation of a rectangle of the panel to an exported page
+ * The rectangle fills the page, and the page coordinates are in points with the origin at
+ * the bottom left corner (see Exporter)
+ */
+public class PageTransform {
+
+	// A4 page, in points
+	public static final int A4_WIDTH = 595;
+	public static final int A4_HEIGHT = 841;
+
+	// initial x, y of the rectangle
+	private final int startX;
+	private final int startY;
+	// final x, y of the rectangle
+	private final int endX;
+	private final int endY;
+	private final double width;
+	private final double height;
+
+	/**
+	 * Constructs a transformation to an A4 page
+	 * @param startX initial x of the rectangle
+	 * @param startY initial y of the rectangle
+	 * @param endX final x of the rectangle
+	 * @param endY final y of the rectangle
+	 * @throws IllegalArgumentException if the rectangle is empty
+	 */
+	public PageTransform(int startX, int startY, int endX, int endY) {
+		this(startX, startY, endX, endY, A4_WIDTH, A4_HEIGHT);
+	}
+
+	/**
+	 * Constructs a transformation to a page
+	 * @param startX initial x of the rectangle
+	 * @param startY initial y of the rectangle
+	 * @param endX final x of the rectangle
+	 * @param endY final y of the rectangle
+	 * @param width width of the page
+	 * @param height height of the page
+	 * @throws IllegalArgumentException if the rectangle is empty
+	 */
+	public PageTransform(int startX, int startY, int endX, int endY, double width, double height) {
+		if (isEmpty(startX, startY, endX, endY))
+			throw new IllegalArgumentException("The rectangle is empty");
+		this.startX = startX;
+		this.startY = startY;
+		this.endX = endX;
+		this.endY = endY;
+		this.width = width;
+		this.height = height;
+	}
+
+	/**
+	 * Constructs a transformation to a page with the size of the rectangle (a pixel is a point)
+	 * @param startX initial x of the rectangle
+	 * @param startY initial y of the rectangle
+	 * @param endX final x of the rectangle
+	 * @param endY final y of the rectangle
+	 * @return the transformation
+	 * @throws IllegalArgumentException if the rectangle is empty
+	 */
+	public static PageTransform fit(int startX, int startY, int endX, int endY) {
+		return new PageTransform(startX, startY, endX, endY, endX-startX, endY-startY);
+	}
+
+	/**
+	 * Returns if a rectangle is empty (it has no width or no height), so it can't fill a page
+	 * @param startX initial x of the rectangle
+	 * @param startY initial y of the rectangle
+	 * @param endX final x of the rectangle
+	 * @param endY final y of the rectangle
+	 * @return true if the rectangle is empty; false otherwise
+	 */
+	public static boolean isEmpty(int startX, int startY, int endX, int endY) {
+		return startX == endX || startY == endY;
+	}
+
+	/**
+	 * Returns the width of the page
+	 * @return width of the page
+	 */
+	public double getWidth() {
+		return width;
+	}
+
+	/**
+	 * Returns the height of the page
+	 * @return height of the page
+	 */
+	public double getHeight() {
+		return height;
+	}
+
+	/**
+	 * Converts an x coordinate of the panel to the page
+	 * @param x x coordinate to convert
+	 * @return converted x coordinate
+	 */
+	public double getX(double x) {
+		return (x-startX)*width / (endX-startX);
+	}
+
+	/**
+	 * Converts an y coordinate of the panel to the page (the y axis is flipped)
+	 * @param y y coordinate to convert
+	 * @return converted y coordinate
+	 */
+	public double getY(double y) {
+		return (endY-y)*height / (endY-startY);
+	}
+}
@@ -2,19 +2,16 @@ import java.awt.Color;
 import java.awt.Cursor;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionAdapter;
 import java.awt.event.MouseMotionListener;
-import java.io.IOException;
 
+import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
-
 /**
  * @author Alexandre Martins Garcia, 34625 G23 P5
  * 
@@ -25,18 +22,17 @@ public class Panel extends JPanel {
 
 	private static final long serialVersionUID = 1L;
 	
-	// Number points to be used when drawing a curve
-	private static final int N_POINTS = 20;
 	// Radius of a point (it allows to click in a neighborhood)
 	private static final int RADIUS = 4;
 	// Width of the cross (mark of the point)
-	private static final int CROSS_WIDTH = 4;
+	private static final int CROSS_WIDTH = Renderer.CROSS_WIDTH;
 	
 	// Polyline object
 	private Polyline polyline;
 	
 	// Current selected point
 	private Point selectedPoint;
+	// Number of points of the polyline (Polyline.OPEN_ENDED if it is finished with the right button)
 	private int numPoints;
 	private int currentPoints;
 	
@@ -52,6 +48,13 @@ public class Panel extends JPanel {
 	private boolean showConvexHull;
 	private boolean showPolyline;
 	
+	// If the curves are tessellated adaptively (Renderer.FLATNESS) instead of with Renderer.N_POINTS points
+	private boolean adaptiveTessellation;
+	// If the curves are drawn as Java2D cubic curves instead of tessellated lines
+	private boolean cubicCurves;
+	// If many curve segments are tessellated in parallel before being drawn
+	private boolean parallelTessellation;
+	
 	// Printing rectangle state
 	private boolean printBox;
 	private boolean needsFirstPoint;
@@ -71,6 +74,17 @@ public class Panel extends JPanel {
 	
 	// Frame to be used to activate/disable menus
 	private final Frame frame;
+	
+	// Draws the parts of the drawing (and keeps the tessellated curve segments)
+	private final Renderer renderer = new Renderer();
+	
+	// Off-screen layers of each part of the drawing
+	private final Layer hullLayer = new Layer();
+	private final Layer polylineLayer = new Layer();
+	private final Layer markersLayer = new Layer();
+	private final Layer bezierLayer = new Layer();
+	private final Layer bSplineLayer = new Layer();
+	private final Layer catmullRomLayer = new Layer();
 
 	/**
 	 * Constructs a JPanel panel
@@ -79,7 +93,7 @@ public class Panel extends JPanel {
 	public Panel(final Frame frame) {
 		numPoints = 4;
 		currentPoints = 0;
-		polyline = new Polyline(4);
+		polyline = new Polyline(4, RADIUS);
 		selectedPoint = null;
 		lastP = null;
 		lastP2 = null;
@@ -89,6 +103,9 @@ public class Panel extends JPanel {
 		showCatmullRomCurve = false;
 		showConvexHull = false;
 		showPolyline = true;
+		adaptiveTessellation = false;
+		cubicCurves = false;
+		parallelTessellation = false;
 		needsFirstPoint = false;
 		this.frame = frame;
 		
@@ -109,12 +126,7 @@ public class Panel extends JPanel {
 				
 				// Will get a point iff the polyline is finished
 				if (e.getButton() == MouseEvent.BUTTON1 && polyline.isFinished()) {
-					boolean existingPoint = false;
-					Line l;
-					existingPoint = (l = polyline.getLineWithPoint(xPos, yPos, RADIUS)) != null;
-
-					if (existingPoint)
-						selectedPoint = polyline.getExactPoint(l, xPos, yPos, RADIUS);
+					selectedPoint = polyline.getPointAt(xPos, yPos, RADIUS);
 				}
 
 			}
@@ -150,11 +162,12 @@ public class Panel extends JPanel {
 							Line l = new Line(lastP, lastP2);
 							
 							polyline.addLine(l);
+							invalidateLayers();
 							
 							drawCross(g, xPos, yPos);
 							
 							// It isn't the last line's point yet
-							if (currentPoints < numPoints) {
+							if (numPoints == Polyline.OPEN_ENDED || currentPoints < numPoints) {
 								
 								// The first point of the polyline is not needed anymore
 								tmpPoint = null;
@@ -165,13 +178,7 @@ public class Panel extends JPanel {
 								xStartPos = xPreviousPos = xPos;
 								yStartPos = yPreviousPos = yPos;
 							} else { // It is the last point of the last line
-								
-								polyline.finish();
-								frame.activateItems();
-								frame.activatePrintItem();
-								paintComponent(g);
-
-								drawingLine = false;								
+								finishPolyline(g);
 							}
 						} else { // Starting a new line
 							// Creates the first point of a polyline
@@ -180,7 +187,8 @@ public class Panel extends JPanel {
 							// This is needed because of repaint (the point isn't at polyline yet)
 							tmpPoint = lastP;
 							currentPoints = 1;
-							polyline = new Polyline(numPoints);
+							polyline = new Polyline(numPoints, RADIUS);
+							invalidateLayers();
 							drawingLine = true;
 							xStartPos = xPreviousPos = xPos;
 							yStartPos = yPreviousPos = yPos;
@@ -203,14 +211,14 @@ public class Panel extends JPanel {
 							
 						}
 						else if (rectanglePointsDrawn == 1) {
-							// The rectangle's second point is drawn. Prints it's content to PostScript
-							PostScriptConverter ps = new PostScriptConverter(polyline, boxXStartPos, boxYStartPos, xPos, yPos, showPolyline, showBezierCurve);
-							try {
-								ps.printToFile();
-								frame.showInformationMessage(true);
-							} catch (IOException e1) {
-								frame.showInformationMessage(false);
-							}
+							// The rectangle's second point is drawn. Prints it's content to an A4 page, in background
+							// and from a copy of the polyline, so it can be edited while the file is written
+							if (PageTransform.isEmpty(boxXStartPos, boxYStartPos, xPos, yPos))
+								JOptionPane.showMessageDialog(frame,
+										"The selected area is empty.\nPlease draw a rectangle with a width and a height");
+							else
+								frame.export(new DrawingExport(polyline.snapshot(), new PageTransform(boxXStartPos, boxYStartPos, xPos, yPos),
+										showPolyline, showBezierCurve, showBSplineCurve, showCatmullRomCurve));
 							printBox = false;
 							frame.activateItems();
 							frame.activatePrintItem();
@@ -222,6 +230,17 @@ public class Panel extends JPanel {
 
 					return;
 				}
+				// The right button finishes an open ended polyline (it needs at least 4 points)
+				if (e.getButton() == MouseEvent.BUTTON3 && drawingLine
+						&& numPoints == Polyline.OPEN_ENDED && currentPoints >= 4) {
+					Graphics2D g = (Graphics2D) getGraphics();
+					// Clean the temporary line
+					g.setXORMode(getBackground());
+					g.setColor(new Color(255, 255, 0));
+					g.drawLine(xStartPos, yStartPos, xPreviousPos, yPreviousPos);
+					g.setPaintMode();
+					finishPolyline(g);
+				}
 			}
 
 			/* (non-Javadoc)
@@ -232,21 +251,25 @@ public class Panel extends JPanel {
 				int yPos = e.getY();
 
 				if (selectedPoint != null) {
-					selectedPoint.setX(xPos);
-					selectedPoint.setY(yPos);
+					// Area that has to be repainted (before and after the point is moved)
+					Rectangle damage = getDamagedArea(selectedPoint);
+					polyline.movePoint(selectedPoint, xPos, yPos);
 					Point pt;
 					// If there's a neighbor point in the moved point's new position
 					if ((pt = polyline.getNeighbor(selectedPoint, RADIUS)) != null) {
-						pt.setX(xPos);
-						pt.setY(yPos);
+						damage = union(damage, getDamagedArea(pt));
+						polyline.movePoint(pt, xPos, yPos);
 						selectedPoint.putInBox();
 					}
 					
 					// Change the old neighbor point to be the moved point
 					polyline.changePointReference(xPos, yPos, RADIUS, selectedPoint);
 
-					Graphics2D g = (Graphics2D) getGraphics();
-					paintComponent(g);
+					damage = union(damage, getDamagedArea(selectedPoint));
+					if (damage != null) {
+						invalidateLayers(damage);
+						repaint(damage);
+					}
 					selectedPoint = null;
 				}	
 			}
@@ -262,10 +285,14 @@ public class Panel extends JPanel {
 				int xPos = e.getX();
 				int yPos = e.getY();
 				if (selectedPoint != null) {
-					selectedPoint.setX(xPos);
-					selectedPoint.setY(yPos);
-					Graphics2D g = (Graphics2D) getGraphics();
-					paintComponent(g);
+					// Only the area used by the point before and after the move is repainted
+					Rectangle damage = getDamagedArea(selectedPoint);
+					polyline.movePoint(selectedPoint, xPos, yPos);
+					damage = union(damage, getDamagedArea(selectedPoint));
+					if (damage != null) {
+						invalidateLayers(damage);
+						repaint(damage);
+					}
 				}
 			}
 
@@ -326,191 +353,75 @@ public class Panel extends JPanel {
 	}
 
 	/**
-	 * Draws the Bezier Curves
-	 * @param g2 graphic in which the curves will be drawn
+	 * Returns the area of the panel where the control point pt is drawn: its crosses,
+	 * the polyline lines that use it and, if visible, the convex hull and the curve
+	 * segments that use it (the layer of a hidden part is redrawn when it is shown)
+	 * @param pt control point
+	 * @return area of the panel that uses pt; null if pt isn't a control point
 	 */
-	private void drawBezierCurves(Graphics g2) {
-		Graphics2D g = (Graphics2D) g2;
-		g.setColor(new Color(255, 0, 0));
-		List<Point> controlPoints = new ArrayList<Point>();
-		Color[] colors = new Color[2];
-		colors[0] = new Color(255, 0, 0);
-		colors[1] = new Color(120, 0, 0);		
-		Line l2 = null;
-		int i = 0, j = 0, color = 0;
-		int nBezierCurves = polyline.getLines().size()+1 == 4 ? 1 : ((polyline.getLines().size() + 1) / 4) + 1;
-		Iterator<Line> it = polyline.getLines().iterator();
-		
-		for (i=0;i<nBezierCurves;i++) {
-			// Iterates over polyline's lines and gets the first three points
-			while (it.hasNext() && j < 3) {
-				l2 = it.next();
-				controlPoints.add(l2.getInitialPoint());
-				j++;
+	private Rectangle getDamagedArea(Point pt) {
+		Rectangle damage = null;
+		int n = polyline.getControlPointCount();
+		for (int i : polyline.getControlPointPositions(pt)) {
+			// The point, its neighbors and the lines between them
+			damage = union(damage, getControlPointsBounds(Math.max(i-1, 0), Math.min(i+1, n-1)));
+			if (n < 4)
+				continue;
+			if (showConvexHull && i < 4)
+				damage = union(damage, getControlPointsBounds(0, 3));
+			int s;
+			if (showBezierCurve) {
+				// Bezier curve s uses the points 3s to 3s+3
+				for (s = Math.max((i-1)/3, 0);s<=Math.min(i/3, Renderer.getBezierCurveCount(polyline)-1);s++)
+					damage = union(damage, Renderer.getSegmentBounds(polyline, CubicBasis.BEZIER, 3*s));
 			}
-			g.setColor(colors[color % 2]);
-			color++;
-			// The first three points were added to controlPoints in the iteration. 
-			// This will be the last controlPoint of this curve
-			controlPoints.add(l2.getFinalPoint());
-			// Restart j to do a new iteration on the next curve
-			j = 0;
-			
-			Curve c = new BezierCurve(controlPoints, N_POINTS);
-			Point p, p2 = null;
-			int length = c.getPoints().size();
-			// Iterates over the points to draw a curve
-			for (int k = 0;k<length-1;k++) {
-				p = c.getPoints().get(k);
-				p2 = c.getPoints().get(k+1);
-				g.drawLine(p.getX(), p.getY(), p2.getX(), p2.getY());
+			// B-Spline and Catmull-Rom curve s uses the points s to s+3
+			if (showBSplineCurve) {
+				for (s = Math.max(i-3, 0);s<=Math.min(i, Renderer.getBSplineCurveCount(polyline)-1);s++)
+					damage = union(damage, Renderer.getSegmentBounds(polyline, CubicBasis.B_SPLINE, s));
 			}
-			System.out.print("Bzier curve " + (i+1) + ": [");
-			for (Point pt : controlPoints) {
-				System.out.print("(" + pt.getX() + ", " + pt.getY() + ")");
+			if (showCatmullRomCurve) {
+				for (s = Math.max(i-3, 0);s<=Math.min(i, Renderer.getCatmullRomCurveCount(polyline)-1);s++)
+					damage = union(damage, Renderer.getSegmentBounds(polyline, CubicBasis.CATMULL_ROM, s));
 			}
-			System.out.println("]");
-			controlPoints.clear();
 		}
-		System.out.println("");
+		if (damage != null) {
+			// Crosses inside a box are drawn around the point
+			damage.grow(CROSS_WIDTH+3, CROSS_WIDTH+3);
+		}
+		return damage;
 	}
 	
 	/**
-	 * Draws the B-Spline Curves
-	 * @param g2 graphic in which the curves will be drawn
+	 * Returns the bounding box of the control points from position first to last
+	 * @param first position of the first control point
+	 * @param last position of the last control point
+	 * @return bounding box of the control points
 	 */
-	private void drawBSplineCurves(Graphics g2) {
-		Graphics2D g = (Graphics2D) g2;
-		g.setColor(new Color(255, 0, 0));
-		List<Point> controlPoints = new ArrayList<Point>();
-		Color[] colors = new Color[2];
-		colors[0] = new Color(0, 255, 0);
-		colors[1] = new Color(0, 120, 0);
-		
-		Line l2 = null;
-		int i = 0, j = 0, color = 0;
-		int nBSplineCurves = polyline.getLines().size()+1 == 4 ? 1 : (polyline.getLines().size() + 1) - 3;
-				
-		List<Line> linesTmp = polyline.getLines();
-		Iterator<Line> it = polyline.getLines().iterator();
-		
-		for (i=0;i<nBSplineCurves;i++) {
-			// Iterates over polyline's lines and gets the first three points
-			while (it.hasNext() && j < 3) {
-				// When creating second B-Spline curve
-				if (i >= 1) {
-					// If getting the first point
-					if (j == 0) {
-						// Get the initial point of the current line
-						l2 = linesTmp.get(i);
-						controlPoints.add(l2.getInitialPoint());
-					}
-					else {
-						// This allows get the next two lines in current and next i iteration so it is possible 
-						// to get the initial point to construct a new curve in that lines' segment
-						l2 = linesTmp.get(i+j);
-						controlPoints.add(l2.getInitialPoint());
-					}
-				}
-				// If j = 0 then get the first point of first line
-				else {
-					l2 = it.next();
-					controlPoints.add(l2.getInitialPoint());
-				}
-				j++;
-			}
-			g.setColor(colors[color % 2]);
-			color++;
-			controlPoints.add(l2.getFinalPoint());
-			j = 0;
-			
-			Curve c = new BSplineCurve(controlPoints, N_POINTS);
-			Point p, p2 = null;
-			int length = c.getPoints().size();
-			// Iterates over the points to draw a curve
-			for (int k = 0;k<length-1;k++) {
-				p = c.getPoints().get(k);
-				p2 = c.getPoints().get(k+1);
-				g.drawLine(p.getX(), p.getY(), p2.getX(), p2.getY());
-			}
-			System.out.print("B-Spline curve " + (i+1) + ": [");
-			for (Point pt : controlPoints) {
-				System.out.print("(" + pt.getX() + ", " + pt.getY() + ")");
-			}
-			System.out.println("]");
-			controlPoints.clear();
+	private Rectangle getControlPointsBounds(int first, int last) {
+		Point pt = polyline.getControlPoint(first);
+		Rectangle bounds = new Rectangle(pt.getX(), pt.getY(), 1, 1);
+		for (int i = first+1;i<=last;i++) {
+			pt = polyline.getControlPoint(i);
+			bounds.add(new Rectangle(pt.getX(), pt.getY(), 1, 1));
 		}
-		System.out.println("");
+		return bounds;
 	}
 	
 	/**
-	 * Draws the Catmull-Rom Curves
-	 * @param g2 graphic in which the curves will be drawn
+	 * Returns the union of two areas
+	 * @param a first area (can be null)
+	 * @param b second area (can be null)
+	 * @return union of both areas; null if both are null
 	 */
-	private void drawCatmullRomCurves(Graphics g2) {
-		Graphics2D g = (Graphics2D) g2;
-		g.setColor(new Color(255, 0, 0));
-		List<Point> controlPoints = new ArrayList<Point>();
-		Color[] colors = new Color[2];
-		colors[0] = new Color(0, 0, 255);
-		colors[1] = new Color(0, 182, 220);
-		
-		Line l2 = null;
-		int i = 0, j = 0, color = 0;
-		int nCatmullRomCurves = polyline.getLines().size()+1 == 4 ? 1 : polyline.getLines().size() - 2;
-		
-		List<Line> linesTmp = polyline.getLines();
-		Iterator<Line> it = polyline.getLines().iterator();
-		
-		for (i=0;i<nCatmullRomCurves;i++) {
-			// Iterates over polyline's lines and gets the first three points
-			while (it.hasNext() && j < 3) {
-				// When creating second B-Spline curve
-				if (i >= 1) {
-					// If getting the first point
-					if (j == 0) {
-						// Get the initial point of the current line
-						l2 = linesTmp.get(i);
-						controlPoints.add(l2.getInitialPoint());
-					}
-					else {
-						// Get the initial point of the next line
-						l2 = linesTmp.get(i+j);
-						controlPoints.add(l2.getInitialPoint());
-					}
-				}
-				// If j = 0 then get the first point of first line
-				else {
-					l2 = it.next();
-					controlPoints.add(l2.getInitialPoint());
-				}
-				j++;
-			}
-			g.setColor(colors[color % 2]);
-			color++;
-			controlPoints.add(l2.getFinalPoint());
-			j = 0;
-			
-			Curve c = new CatmullRomCurve(controlPoints, N_POINTS);
-			Point p, p2 = null;
-			int length = c.getPoints().size();
-			// Iterates over the points to draw a curve
-			for (int k = 0;k<length-1;k++) {
-				p = c.getPoints().get(k);
-				p2 = c.getPoints().get(k+1);
-				g.drawLine(p.getX(), p.getY(), p2.getX(), p2.getY());
-			}
-			System.out.print("Catmull-Rom curve " + (i+1) + ": [");
-			for (Point pt : controlPoints) {
-				System.out.print("(" + pt.getX() + ", " + pt.getY() + ")");
-			}
-			System.out.println("]");
-			controlPoints.clear();
-		}
-		System.out.println("");
+	private static Rectangle union(Rectangle a, Rectangle b) {
+		if (a == null)
+			return b;
+		if (b == null)
+			return a;
+		return a.union(b);
 	}
 	
-	
 	/**
 	 * Draws a cross in screen
 	 * @param g graphic in which the cross will be drawn
@@ -540,60 +451,120 @@ public class Panel extends JPanel {
 		g.setColor(new Color(255, 255, 0));
 	}
 
+	/**
+	 * Finishes the polyline being drawn
+	 * @param g graphic in which the polyline is being drawn
+	 */
+	private void finishPolyline(Graphics2D g) {
+		polyline.finish();
+		frame.activateItems();
+		frame.activatePrintItem();
+		paintComponent(g);
+
+		drawingLine = false;
+	}
+
 	/**
 	 * Sets the number of points that the polyline will have
-	 * @param num number of points
+	 * @param num number of points (Polyline.OPEN_ENDED if it is finished with the right button)
 	 */
 	public void setNumPoints(int num) {
 		numPoints = num;
-		polyline = new Polyline(num);
+		polyline = new Polyline(num, RADIUS);
+		clearCurveCaches();
+		invalidateLayers();
 	}
-
+	
 	/**
-	 * Draws a Convex Hull with the first 4 points of the polyline
-	 * @param g2 graphic in which the convex hull will be drawn
+	 * Replaces the drawing by a (finished) polyline
+	 * @param polyline polyline to show
 	 */
-	private void drawConvexHull(Graphics g2) {
-		Graphics2D g = (Graphics2D) g2;
-		g.setColor(new Color(0, 255, 255));
-		int xPoints[] = new int[3];
-		int yPoints[] = new int[3];
-		int i = 0;
-		Line l = null;
-		// Get the first three points of the polyline (0, 1, 2)
-		for (i = 0;i<3;i++) {
-			l = polyline.getLineAt(i);
-			if (l != null) {
-				xPoints[i] = l.getInitialPoint().getX();
-				yPoints[i] = l.getInitialPoint().getY();
-			}
-		}
-		g.fillPolygon(xPoints, yPoints, 3);		
-		
-		// Get another three points
-		for (i = 0;i<2;i++) {
-			// Get lines 0, 2, 3
-			l = polyline.getLineAt(i > 0 ? i+1 : i);
-			if (l != null) {
-				xPoints[i] = l.getInitialPoint().getX();
-				yPoints[i] = l.getInitialPoint().getY();
-				if (i == 1) {
-					// Get the final point of the third line
-					xPoints[i+1] = l.getFinalPoint().getX();
-					yPoints[i+1] = l.getFinalPoint().getY();
-				}
-			}
-		}
-		g.fillPolygon(xPoints, yPoints, 3);
-		
-		// Get the second line's initial point to draw another triangle
-		l = polyline.getLineAt(1);
-		if (l != null) {
-			xPoints[1] = l.getInitialPoint().getX();
-			yPoints[1] = l.getInitialPoint().getY();
-		}
-		g.fillPolygon(xPoints, yPoints, 3);
-		
+	public void setPolyline(Polyline polyline) {
+		drawingLine = false;
+		tmpPoint = null;
+		this.polyline = polyline;
+		currentPoints = polyline.getControlPointCount();
+		clearCurveCaches();
+		invalidateLayers();
+		repaint();
+	}
+	
+	/**
+	 * Returns the (finished) polyline and the visible parts of the drawing as a document
+	 * @return the document
+	 */
+	public DocumentFile getDocument() {
+		int visibleParts = 0;
+		if (showBezierCurve)
+			visibleParts |= DocumentFile.BEZIER;
+		if (showBSplineCurve)
+			visibleParts |= DocumentFile.B_SPLINE;
+		if (showCatmullRomCurve)
+			visibleParts |= DocumentFile.CATMULL_ROM;
+		if (showConvexHull)
+			visibleParts |= DocumentFile.CONVEX_HULL;
+		if (showPolyline)
+			visibleParts |= DocumentFile.POLYLINE;
+		return new DocumentFile(polyline, visibleParts);
+	}
+	
+	/**
+	 * Replaces the drawing by the polyline of a document, with its visible parts
+	 * @param document document to show
+	 */
+	public void setDocument(DocumentFile document) {
+		printBox = false;
+		needsFirstPoint = false;
+		rectanglePointsDrawn = 0;
+		showBezierCurve = document.isVisible(DocumentFile.BEZIER);
+		showBSplineCurve = document.isVisible(DocumentFile.B_SPLINE);
+		showCatmullRomCurve = document.isVisible(DocumentFile.CATMULL_ROM);
+		showConvexHull = document.isVisible(DocumentFile.CONVEX_HULL);
+		showPolyline = document.isVisible(DocumentFile.POLYLINE);
+		setPolyline(document.getPolyline());
+	}
+	
+	/**
+	 * Returns if the polyline is finished (so it can be saved)
+	 * @return true if the polyline is finished; false otherwise
+	 */
+	public boolean isPolylineFinished() {
+		return polyline.isFinished() && polyline.getControlPointCount() >= 2;
+	}
+	
+	/**
+	 * Sets which curves are visible
+	 * @param bezier if the Bezier curves are visible
+	 * @param bSpline if the B-Spline curves are visible
+	 * @param catmullRom if the Catmull-Rom curves are visible
+	 */
+	public void setCurvesVisibility(boolean bezier, boolean bSpline, boolean catmullRom) {
+		showBezierCurve = bezier;
+		showBSplineCurve = bSpline;
+		showCatmullRomCurve = catmullRom;
+		invalidateCurveLayers();
+		repaint();
+	}
+	
+	/**
+	 * Sets how the curves are drawn
+	 * @param adaptive if the curves are tessellated adaptively
+	 * @param cubic if the curves are drawn as Java2D cubic curves
+	 */
+	public void setCurvesDrawing(boolean adaptive, boolean cubic) {
+		adaptiveTessellation = adaptive;
+		cubicCurves = cubic;
+		renderer.setAdaptive(adaptive);
+		renderer.setCubic(cubic);
+		invalidateCurveLayers();
+		repaint();
+	}
+	
+	/**
+	 * Discards the tessellated segments of all the curves
+	 */
+	private void clearCurveCaches() {
+		renderer.clearCaches();
 	}
 
 	/* (non-Javadoc)
@@ -602,16 +573,64 @@ public class Panel extends JPanel {
 	public void paintComponent(Graphics g) {
 		super.paintComponent(g);
 		Graphics2D g2 = (Graphics2D) g;
+		int width = getWidth();
+		int height = getHeight();
+		Graphics2D lg;
+
+		// Each part of the drawing is kept in its own layer, which is only drawn again
+		// (in the invalidated area) when the part changes
 
 		// Will redraw the convex hull if exists at least 3 lines (4 points)
-		if (polyline.getLines().size() >= 3) {
-			if (showConvexHull)
-				drawConvexHull(g2);
+		if (polyline.getLineCount() >= 3 && showConvexHull) {
+			if ((lg = hullLayer.update(getGraphicsConfiguration(), width, height)) != null) {
+				renderer.drawConvexHull(lg, polyline);
+				lg.dispose();
+			}
+			g2.drawImage(hullLayer.getImage(), 0, 0, null);
+		}
+		
+		if (showPolyline) {
+			if ((lg = polylineLayer.update(getGraphicsConfiguration(), width, height)) != null) {
+				renderer.drawPolyline(lg, polyline);
+				lg.dispose();
+			}
+			g2.drawImage(polylineLayer.getImage(), 0, 0, null);
+		}
+		
+		if ((lg = markersLayer.update(getGraphicsConfiguration(), width, height)) != null) {
+			renderer.drawMarkers(lg, polyline);
+			lg.dispose();
+		}
+		g2.drawImage(markersLayer.getImage(), 0, 0, null);
+		
+		// Redraws all the curves (if they are set to be visible)
+		if (polyline.getLineCount() >= 3) {
+			if (showBezierCurve) {
+				if ((lg = bezierLayer.update(getGraphicsConfiguration(), width, height)) != null) {
+					renderer.drawBezierCurves(lg, polyline);
+					lg.dispose();
+				}
+				g2.drawImage(bezierLayer.getImage(), 0, 0, null);
+			}
+			if (showBSplineCurve) {
+				if ((lg = bSplineLayer.update(getGraphicsConfiguration(), width, height)) != null) {
+					renderer.drawBSplineCurves(lg, polyline);
+					lg.dispose();
+				}
+				g2.drawImage(bSplineLayer.getImage(), 0, 0, null);
+			}
+			if (showCatmullRomCurve) {
+				if ((lg = catmullRomLayer.update(getGraphicsConfiguration(), width, height)) != null) {
+					renderer.drawCatmullRomCurves(lg, polyline);
+					lg.dispose();
+				}
+				g2.drawImage(catmullRomLayer.getImage(), 0, 0, null);
+			}
 		}
-		g2.setColor(new Color(255, 255, 0));
 		
 		// If the user is drawing a line or a printing rectangle and an event calls the paintComponent 
 		// it is necessary to draw it
+		g2.setColor(new Color(255, 255, 0));
 		if (drawingLine) {
 			g2.drawLine(xStartPos, yStartPos, xPreviousPos, yPreviousPos);
 		}
@@ -621,40 +640,42 @@ public class Panel extends JPanel {
 			g2.setColor(new Color(0, 0, 0));
 			g.drawRect(boxXStartPos, boxYStartPos, Math.abs(xDiffAnterior), Math.abs(yDiffAnterior));
 		}
-		// Change color to be yellow
-		g2.setColor(new Color(255, 255, 0));
 		
 		// If there's just the initial point drawn it is redrawn
 		if (tmpPoint != null)
 				drawCross(g2, tmpPoint.getX(), tmpPoint.getY());
-		
-		// Redraws all the points and lines
-		for (Line l : polyline.getLines()) {
-			if (showPolyline)
-				g2.drawLine(l.getInitialPoint().getX(), l.getInitialPoint().getY(),
-					l.getFinalPoint().getX(), l.getFinalPoint().getY());
-			if (l.getInitialPoint().isBoxedPoint())
-				drawCrossInsideBox(g2, l.getInitialPoint().getX(), l.getInitialPoint()
-						.getY());
-			else
-				drawCross(g2, l.getInitialPoint().getX(), l.getInitialPoint()
-					.getY());
-			if (l.getFinalPoint().isBoxedPoint())
-				drawCrossInsideBox(g2, l.getFinalPoint().getX(), l.getFinalPoint().getY());
-			else
-				drawCross(g2, l.getFinalPoint().getX(), l.getFinalPoint().getY());
-		}
-		
-		// Redraws all the curves (if they are set to be visible)
-		if (polyline.getLines().size() >= 3) {
-			if (showBezierCurve)
-				drawBezierCurves(g2);
-			if (showBSplineCurve)
-				drawBSplineCurves(g2);
-			if (showCatmullRomCurve)
-				drawCatmullRomCurves(g2);
-			
-		}
+	}
+	
+	/**
+	 * Marks the whole drawing to be drawn again in all the layers
+	 */
+	private void invalidateLayers() {
+		hullLayer.invalidate();
+		polylineLayer.invalidate();
+		markersLayer.invalidate();
+		invalidateCurveLayers();
+	}
+	
+	/**
+	 * Marks an area to be drawn again in all the layers
+	 * @param area area to be drawn again
+	 */
+	private void invalidateLayers(Rectangle area) {
+		hullLayer.invalidate(area);
+		polylineLayer.invalidate(area);
+		markersLayer.invalidate(area);
+		bezierLayer.invalidate(area);
+		bSplineLayer.invalidate(area);
+		catmullRomLayer.invalidate(area);
+	}
+	
+	/**
+	 * Marks the curves to be drawn again
+	 */
+	private void invalidateCurveLayers() {
+		bezierLayer.invalidate();
+		bSplineLayer.invalidate();
+		catmullRomLayer.invalidate();
 	}
 
 
@@ -665,7 +686,7 @@ public class Panel extends JPanel {
 		// Change application state
 		drawingLine = false;
 		tmpPoint = null;
-		polyline = new Polyline(numPoints);
+		polyline = new Polyline(numPoints, RADIUS);
 		showBezierCurve = false;
 		showBSplineCurve = false;
 		showCatmullRomCurve = false;
@@ -675,6 +696,8 @@ public class Panel extends JPanel {
 		needsFirstPoint = false;
 		currentPoints = 0;
 		rectanglePointsDrawn = 0;
+		clearCurveCaches();
+		invalidateLayers();
 		// Force repaint
 		repaint();
 	}
@@ -684,10 +707,10 @@ public class Panel extends JPanel {
 	 */
 	public void changeBezierCurvesVisibility() {
 		showBezierCurve = !showBezierCurve;
+		// Its layer wasn't updated while it was hidden
 		if (showBezierCurve)
-			frame.activatePrintItem();
-		else if (!showPolyline)
-			frame.disablePrintItem();
+			bezierLayer.invalidate();
+		updatePrintItem(showBezierCurve);
 		Graphics2D g = (Graphics2D) getGraphics();
 		this.paintComponent(g);
 	}
@@ -698,6 +721,10 @@ public class Panel extends JPanel {
 	 */
 	public void changeBSplineCurvesVisibility() {
 		showBSplineCurve = !showBSplineCurve;
+		// Its layer wasn't updated while it was hidden
+		if (showBSplineCurve)
+			bSplineLayer.invalidate();
+		updatePrintItem(showBSplineCurve);
 		Graphics2D g = (Graphics2D) getGraphics();
 		this.paintComponent(g);
 	}
@@ -707,6 +734,10 @@ public class Panel extends JPanel {
 	 */
 	public void changeCatmullRomCurvesVisibility() {
 		showCatmullRomCurve = !showCatmullRomCurve;
+		// Its layer wasn't updated while it was hidden
+		if (showCatmullRomCurve)
+			catmullRomLayer.invalidate();
+		updatePrintItem(showCatmullRomCurve);
 		Graphics2D g = (Graphics2D) getGraphics();
 		this.paintComponent(g);
 	}
@@ -716,6 +747,9 @@ public class Panel extends JPanel {
 	 */
 	public void changeConvexHullVisibility() {
 		showConvexHull = !showConvexHull;
+		// Its layer wasn't updated while it was hidden
+		if (showConvexHull)
+			hullLayer.invalidate();
 		Graphics2D g = (Graphics2D) getGraphics();
 		this.paintComponent(g);
 	}
@@ -725,12 +759,52 @@ public class Panel extends JPanel {
 	 */
 	public void changePolylineVisibility() {
 		showPolyline = !showPolyline;
-		if (showPolyline)
+		updatePrintItem(showPolyline);
+		Graphics2D g = (Graphics2D) getGraphics();
+		this.paintComponent(g);
+	}
+	
+	/**
+	 * Activates the print item when a part is shown, or disables it when nothing printable is shown
+	 * @param shown if the changed part is now shown
+	 */
+	private void updatePrintItem(boolean shown) {
+		if (shown)
 			frame.activatePrintItem();
-		else if (!showBezierCurve)
+		else if (!showPolyline && !showBezierCurve && !showBSplineCurve && !showCatmullRomCurve)
 			frame.disablePrintItem();
+	}
+	
+	/**
+	 * Changes between adaptive and fixed (Renderer.N_POINTS) curve tessellation
+	 */
+	public void changeAdaptiveTessellation() {
+		adaptiveTessellation = !adaptiveTessellation;
+		renderer.setAdaptive(adaptiveTessellation);
+		invalidateCurveLayers();
+		Graphics2D g = (Graphics2D) getGraphics();
+		this.paintComponent(g);
+	}
+	
+	/**
+	 * Changes between Java2D cubic curves and tessellated curves
+	 */
+	public void changeCubicCurves() {
+		cubicCurves = !cubicCurves;
+		renderer.setCubic(cubicCurves);
+		invalidateCurveLayers();
+		Graphics2D g = (Graphics2D) getGraphics();
+		this.paintComponent(g);
+	}
+	
+	/**
+	 * Changes if many curve segments are tessellated in parallel
+	 */
+	public void changeParallelTessellation() {
+		parallelTessellation = !parallelTessellation;
+		renderer.setParallel(parallelTessellation);
+		invalidateCurveLayers();
 		Graphics2D g = (Graphics2D) getGraphics();
 		this.paintComponent(g);
 	}
 }
-		
\ No newline at end of file
@@ -0,0 +1,79 @@
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * This class represents how an exported path is stroked (color, width and dash)
+ * The sizes are in points (1/72 inch), as in the exported pages
+ */
+public final class PathStyle {
+
+	// Polyline: thin red dashed line
+	public static final PathStyle POLYLINE = new PathStyle(1.0, 0.0, 0.0, 0.567, 5.67);
+	// Bezier curve: black
+	public static final PathStyle BEZIER = new PathStyle(0.0, 0.0, 0.0, 1.0, 0);
+	// B-Spline curve: dark green
+	public static final PathStyle B_SPLINE = new PathStyle(0.0, 0.47, 0.0, 1.0, 0);
+	// Catmull-Rom curve: blue
+	public static final PathStyle CATMULL_ROM = new PathStyle(0.0, 0.0, 1.0, 1.0, 0);
+
+	private final double red;
+	private final double green;
+	private final double blue;
+	private final double width;
+	private final double dash;
+
+	/**
+	 * Constructs a path style
+	 * @param red red component of the color (0 to 1)
+	 * @param green green component of the color (0 to 1)
+	 * @param blue blue component of the color (0 to 1)
+	 * @param width width of the line
+	 * @param dash length of the dashes and of the gaps between them (0 for a solid line)
+	 */
+	public PathStyle(double red, double green, double blue, double width, double dash) {
+		this.red = red;
+		this.green = green;
+		this.blue = blue;
+		this.width = width;
+		this.dash = dash;
+	}
+
+	/**
+	 * Returns the red component of the color
+	 * @return red component (0 to 1)
+	 */
+	public double getRed() {
+		return red;
+	}
+
+	/**
+	 * Returns the green component of the color
+	 * @return green component (0 to 1)
+	 */
+	public double getGreen() {
+		return green;
+	}
+
+	/**
+	 * Returns the blue component of the color
+	 * @return blue component (0 to 1)
+	 */
+	public double getBlue() {
+		return blue;
+	}
+
+	/**
+	 * Returns the width of the line
+	 * @return width of the line
+	 */
+	public double getWidth() {
+		return width;
+	}
+
+	/**
+	 * Returns the length of the dashes and of the gaps between them
+	 * @return length of the dashes (0 for a solid line)
+	 */
+	public double getDash() {
+		return dash;
+	}
+}
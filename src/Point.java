@@ -9,6 +9,8 @@ public class Point {
 	private int x;
 	private int y;
 	private boolean boxedPoint;
+	// Incremented every time the point is changed (used to know if cached curves are still valid)
+	private int version;
 	
 	/**
 	 * Constructs a point
@@ -43,6 +45,7 @@ public class Point {
 	 */
 	public void setX(int x) {
 		this.x = x;
+		version++;
 	}
 	
 	/**
@@ -51,6 +54,16 @@ public class Point {
 	 */
 	public void setY(int y) {
 		this.y = y;
+		version++;
+	}
+	
+	/**
+	 * Returns the modification version of the point
+	 * It changes every time the point's coordinates are changed
+	 * @return modification version of the point
+	 */
+	public int getVersion() {
+		return version;
 	}
 	
 	/**
@@ -0,0 +1,116 @@
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * This class represents a growable buffer of points stored as two primitive
+ * coordinate arrays (one for x and one for y). It is meant to be reused between
+ * drawings so that tessellating a curve does not create a Point per sample
+ */
+public class PointBuffer {
+
+	private int[] xs;
+	private int[] ys;
+	private int size;
+
+	/**
+	 * Constructs an empty point buffer
+	 * @param capacity initial number of points that the buffer can hold
+	 */
+	public PointBuffer(int capacity) {
+		xs = new int[Math.max(capacity, 1)];
+		ys = new int[Math.max(capacity, 1)];
+		size = 0;
+	}
+
+	/**
+	 * Removes all the points of the buffer (the arrays are kept to be reused)
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Makes sure the buffer can hold capacity points without growing
+	 * @param capacity number of points
+	 */
+	public void ensureCapacity(int capacity) {
+		if (capacity > xs.length) {
+			int newLength = Math.max(capacity, xs.length * 2);
+			int[] newXs = new int[newLength];
+			int[] newYs = new int[newLength];
+			System.arraycopy(xs, 0, newXs, 0, size);
+			System.arraycopy(ys, 0, newYs, 0, size);
+			xs = newXs;
+			ys = newYs;
+		}
+	}
+
+	/**
+	 * Adds a point to the end of the buffer
+	 * @param x x coordinate
+	 * @param y y coordinate
+	 */
+	public void add(int x, int y) {
+		if (size == xs.length)
+			ensureCapacity(size + 1);
+		xs[size] = x;
+		ys[size] = y;
+		size++;
+	}
+
+	/**
+	 * Adds count points to the end of the buffer, to be set directly in the coordinate arrays
+	 * (which must be obtained again, with getXs and getYs, after calling this method)
+	 * @param count number of points to add
+	 * @return index of the first added point
+	 */
+	public int extend(int count) {
+		ensureCapacity(size + count);
+		int first = size;
+		size += count;
+		return first;
+	}
+
+	/**
+	 * Returns the number of points in the buffer
+	 * @return number of points in the buffer
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the x coordinate of point i
+	 * @param i index of the point
+	 * @return x coordinate of point i
+	 */
+	public int getX(int i) {
+		return xs[i];
+	}
+
+	/**
+	 * Returns the y coordinate of point i
+	 * @param i index of the point
+	 * @return y coordinate of point i
+	 */
+	public int getY(int i) {
+		return ys[i];
+	}
+
+	/**
+	 * Returns the array with the x coordinates. Only the first size() values are valid
+	 * and the array may be replaced when the buffer grows
+	 * @return array with the x coordinates
+	 */
+	public int[] getXs() {
+		return xs;
+	}
+
+	/**
+	 * Returns the array with the y coordinates. Only the first size() values are valid
+	 * and the array may be replaced when the buffer grows
+	 * @return array with the y coordinates
+	 */
+	public int[] getYs() {
+		return ys;
+	}
+}
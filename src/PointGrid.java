@@ -0,0 +1,175 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * This class represents a spatial index of points: a uniform grid of square cells
+ * stored in a hash map, so only the cells near a position have to be searched
+ * Points must be moved through the grid (move) so that it stays up to date
+ */
+public class PointGrid {
+
+	private final int cellSize;
+	// Points of each non empty cell, by cell key
+	private final Map<Long, List<Point>> cells;
+	private int size;
+
+	/**
+	 * Constructs an empty grid
+	 * @param cellSize width and height of each cell (about the radius used in searches)
+	 */
+	public PointGrid(int cellSize) {
+		this.cellSize = Math.max(cellSize, 1);
+		cells = new HashMap<Long, List<Point>>();
+		size = 0;
+	}
+
+	/**
+	 * Returns the key of the cell with cell coordinates cx, cy
+	 * @param cx cell x coordinate
+	 * @param cy cell y coordinate
+	 * @return key of the cell
+	 */
+	private static Long key(int cx, int cy) {
+		return Long.valueOf(((long)cx << 32) | (cy & 0xffffffffL));
+	}
+
+	/**
+	 * Returns the cell coordinate of a point coordinate
+	 * @param v point coordinate
+	 * @return cell coordinate
+	 */
+	private int cell(int v) {
+		return Math.floorDiv(v, cellSize);
+	}
+
+	/**
+	 * Adds a point to the grid
+	 * @param pt point to add
+	 */
+	public void add(Point pt) {
+		Long k = key(cell(pt.getX()), cell(pt.getY()));
+		List<Point> points = cells.get(k);
+		if (points == null) {
+			points = new ArrayList<Point>(2);
+			cells.put(k, points);
+		}
+		points.add(pt);
+		size++;
+	}
+
+	/**
+	 * Removes a point from the grid (it must be at the position where it was added or moved to)
+	 * @param pt point to remove
+	 * @return true if the point was removed; false if it wasn't in the grid
+	 */
+	public boolean remove(Point pt) {
+		Long k = key(cell(pt.getX()), cell(pt.getY()));
+		List<Point> points = cells.get(k);
+		if (points == null)
+			return false;
+		for (int i = 0;i<points.size();i++) {
+			if (points.get(i) == pt) {
+				points.remove(i);
+				if (points.isEmpty())
+					cells.remove(k);
+				size--;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Moves a point of the grid to a new position
+	 * @param pt point to move
+	 * @param x new x coordinate
+	 * @param y new y coordinate
+	 */
+	public void move(Point pt, int x, int y) {
+		boolean sameCell = cell(pt.getX()) == cell(x) && cell(pt.getY()) == cell(y);
+		if (!sameCell)
+			remove(pt);
+		pt.setX(x);
+		pt.setY(y);
+		if (!sameCell)
+			add(pt);
+	}
+
+	/**
+	 * Returns the number of points in the grid
+	 * @return number of points
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the closest point to x, y in the x, y neighborhood
+	 * @param x x coordinate
+	 * @param y y coordinate
+	 * @param radius radius of the neighborhood
+	 * @param excluded point that is ignored (can be null)
+	 * @return the closest point in the neighborhood; null if there's no point
+	 */
+	public Point find(int x, int y, int radius, Point excluded) {
+		Point closest = null;
+		long closestDistance = (long)radius*radius;
+		for (int cx = cell(x - radius);cx<=cell(x + radius);cx++) {
+			for (int cy = cell(y - radius);cy<=cell(y + radius);cy++) {
+				List<Point> points = cells.get(key(cx, cy));
+				if (points == null)
+					continue;
+				for (Point pt : points) {
+					long distance = squaredDistance(pt, x, y);
+					if (pt != excluded && (distance < closestDistance
+							|| (closest == null && distance == closestDistance))) {
+						closest = pt;
+						closestDistance = distance;
+					}
+				}
+			}
+		}
+		return closest;
+	}
+
+	/**
+	 * Returns all the points in the x, y neighborhood
+	 * @param x x coordinate
+	 * @param y y coordinate
+	 * @param radius radius of the neighborhood
+	 * @return points in the neighborhood
+	 */
+	public List<Point> findAll(int x, int y, int radius) {
+		List<Point> found = new ArrayList<Point>();
+		long maxDistance = (long)radius*radius;
+		for (int cx = cell(x - radius);cx<=cell(x + radius);cx++) {
+			for (int cy = cell(y - radius);cy<=cell(y + radius);cy++) {
+				List<Point> points = cells.get(key(cx, cy));
+				if (points == null)
+					continue;
+				for (Point pt : points) {
+					if (squaredDistance(pt, x, y) <= maxDistance)
+						found.add(pt);
+				}
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Returns the squared Euclidean distance between a point and x, y
+	 * @param pt point
+	 * @param x x coordinate
+	 * @param y y coordinate
+	 * @return squared distance
+	 */
+	private static long squaredDistance(Point pt, int x, int y) {
+		long dx = pt.getX() - x;
+		long dy = pt.getY() - y;
+		return dx*dx + dy*dy;
+	}
+}
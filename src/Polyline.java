@@ -1,50 +1,348 @@
+import java.awt.Rectangle;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author Alexandre Martins Garcia, 34625 G23 P5
- * 
+ *
  * This class represents a Polyline
+ * It is stored as an array of vertices (the distinct points) and the sequence of
+ * control points as vertex indices; line i goes from control point i to control point i+1.
+ * A vertex used more than once (e.g. a point moved onto another one) appears several
+ * times in the sequence
+ * The control points are also grouped in blocks of BLOCK_SIZE points with their bounding
+ * box, so whole blocks of a large polyline can be skipped when drawing a small area
+ * A loaded polyline only indexes its points (by position and by identity) when they are
+ * first searched, moved or added
  */
 public class Polyline {
-	private List<Line> lineList;
+	// Length of a polyline that only ends when it is finished
+	public static final int OPEN_ENDED = 0;
+	// Number of control points of each block
+	public static final int BLOCK_SIZE = 64;
+	// Default size of the cells of the points index
+	private static final int DEFAULT_CELL_SIZE = 4;
+
 	private boolean finished;
 	private int length;
-	
+
+	// Distinct points of the polyline and the index of each one in that list
+	private List<Point> vertices;
+	private Map<Point, Integer> vertexIndices;
+	// Positions of the sequence where each vertex is used
+	private List<Positions> occurrences;
+	// Control points of the polyline, as vertex indices
+	private int[] sequence;
+	private int size;
+
+	// Index of the polyline's points by position
+	private PointGrid grid;
+	private int cellSize;
+	// If vertexIndices, occurrences and grid were built
+	private boolean indexed;
+
+	// Bounding box of each block of control points and if it is up to date
+	private Rectangle[] blockBounds;
+	private boolean[] validBlocks;
+
 	/**
 	 * Constructs a polyline with length points
-	 * @param length number of points that the polyline will have
+	 * @param length number of points that the polyline will have (OPEN_ENDED if it only ends when finished)
 	 */
 	public Polyline(int length) {
-		lineList = new ArrayList<Line>();
+		this(length, DEFAULT_CELL_SIZE);
+	}
+
+	/**
+	 * Constructs a polyline with length points
+	 * @param length number of points that the polyline will have (OPEN_ENDED if it only ends when finished)
+	 * @param cellSize size of the cells of the points index (should be about the radius used to search points)
+	 */
+	public Polyline(int length, int cellSize) {
 		finished = false;
-		// There will be length-1 lines
+		// There will be length-1 lines (an open ended polyline never gets to -1 lines)
 		this.length = length-1;
+		vertices = new ArrayList<Point>();
+		vertexIndices = new IdentityHashMap<Point, Integer>();
+		occurrences = new ArrayList<Positions>();
+		sequence = new int[Math.max(length, 4)];
+		size = 0;
+		this.cellSize = cellSize;
+		grid = new PointGrid(cellSize);
+		indexed = true;
+		blockBounds = new Rectangle[0];
+		validBlocks = new boolean[0];
+	}
+
+	/**
+	 * Constructs a finished polyline from its distinct points and its control points
+	 * The points are only indexed when first needed, so it is created in constant time
+	 * @param vertices distinct points of the polyline
+	 * @param sequence control points of the polyline, as indices of vertices (at least 2)
+	 */
+	public Polyline(List<Point> vertices, int[] sequence) {
+		this(vertices, sequence, DEFAULT_CELL_SIZE);
 	}
-	
+
+	/**
+	 * Constructs a finished polyline from its distinct points and its control points
+	 * The points are only indexed when first needed, so it is created in constant time
+	 * @param vertices distinct points of the polyline
+	 * @param sequence control points of the polyline, as indices of vertices (at least 2)
+	 * @param cellSize size of the cells of the points index (should be about the radius used to search points)
+	 */
+	public Polyline(List<Point> vertices, int[] sequence, int cellSize) {
+		finished = true;
+		length = sequence.length-1;
+		this.vertices = vertices;
+		this.sequence = sequence;
+		size = sequence.length;
+		this.cellSize = cellSize;
+		indexed = false;
+		blockBounds = new Rectangle[(size + BLOCK_SIZE - 1) / BLOCK_SIZE];
+		validBlocks = new boolean[blockBounds.length];
+	}
+
+	/**
+	 * Builds the indices of the points, if they weren't built yet
+	 */
+	private void buildIndex() {
+		if (indexed)
+			return;
+		vertexIndices = new IdentityHashMap<Point, Integer>(vertices.size()*2);
+		occurrences = new ArrayList<Positions>(vertices.size());
+		grid = new PointGrid(cellSize);
+		for (int i = 0;i<vertices.size();i++) {
+			Point pt = vertices.get(i);
+			vertexIndices.put(pt, Integer.valueOf(i));
+			occurrences.add(new Positions());
+			grid.add(pt);
+		}
+		for (int pos = 0;pos<size;pos++)
+			occurrences.get(sequence[pos]).add(pos);
+		indexed = true;
+	}
+
 	/**
 	 * Adds a line to the polyline
+	 * The line's initial point must be the polyline's last point (unless it is the first line)
 	 * @param line line to add
 	 * @return true if lines was added; false otherwise
 	 */
 	public boolean addLine(Line line) {
 		// If it is the last line, then the polyline will be finished
-		finished = (lineList.size()+1 == length);
-		return lineList.add(line);
+		finished = (getLineCount()+1 == length);
+		if (size == 0)
+			addControlPoint(line.getInitialPoint());
+		addControlPoint(line.getFinalPoint());
+		return true;
 	}
-	
+
+	/**
+	 * Adds a control point to the end of the polyline
+	 * Used by addLine and to load a polyline without creating its lines
+	 * @param pt point to add (it may be a point already in the polyline)
+	 */
+	public void addControlPoint(Point pt) {
+		buildIndex();
+		Integer index = vertexIndices.get(pt);
+		if (index == null) {
+			index = Integer.valueOf(vertices.size());
+			vertices.add(pt);
+			vertexIndices.put(pt, index);
+			occurrences.add(new Positions());
+			grid.add(pt);
+		}
+		if (size == sequence.length)
+			sequence = Arrays.copyOf(sequence, size*2);
+		sequence[size] = index.intValue();
+		occurrences.get(index.intValue()).add(size);
+		size++;
+		if ((size + BLOCK_SIZE - 1) / BLOCK_SIZE > blockBounds.length) {
+			blockBounds = Arrays.copyOf(blockBounds, Math.max(blockBounds.length*2, 1));
+			validBlocks = Arrays.copyOf(validBlocks, blockBounds.length);
+		}
+		invalidateBlocks(size-1);
+	}
+
+	/**
+	 * Moves a point of the polyline, keeping the points index up to date
+	 * Points of the polyline must always be moved with this method
+	 * @param pt point to move
+	 * @param x new x coordinate
+	 * @param y new y coordinate
+	 */
+	public void movePoint(Point pt, int x, int y) {
+		buildIndex();
+		Integer index = vertexIndices.get(pt);
+		if (index != null) {
+			grid.move(pt, x, y);
+			Positions positions = occurrences.get(index.intValue());
+			for (int i = 0;i<positions.size();i++)
+				invalidateBlocks(positions.get(i));
+		} else {
+			pt.setX(x);
+			pt.setY(y);
+		}
+	}
+
 	/**
 	 * Returns line at position pos
 	 * @param pos position of the line to get
-	 * @return line at position pos
+	 * @return line at position pos (a new line with the polyline's points); null if there's no such line
 	 */
 	public Line getLineAt(int pos) {
-		if (pos < lineList.size())
-			return lineList.get(pos);
+		if (pos < getLineCount())
+			return new Line(getControlPoint(pos), getControlPoint(pos+1));
 		return null;
 	}
-	
+
+	/**
+	 * Returns the number of lines of the polyline
+	 * @return number of lines
+	 */
+	public int getLineCount() {
+		return Math.max(size-1, 0);
+	}
+
+	/**
+	 * Returns the number of control points of the polyline (number of lines + 1)
+	 * @return number of control points; 0 if the polyline has no lines
+	 */
+	public int getControlPointCount() {
+		return size < 2 ? 0 : size;
+	}
+
+	/**
+	 * Returns a copy of the finished polyline, with copies of its points, so it doesn't
+	 * change while this polyline is edited (e.g. to export it in background)
+	 * @return copy of the polyline (it isn't indexed until used)
+	 */
+	public Polyline snapshot() {
+		List<Point> copies = new ArrayList<Point>(vertices.size());
+		for (Point pt : vertices) {
+			Point copy = new Point(pt.getX(), pt.getY());
+			if (pt.isBoxedPoint())
+				copy.putInBox();
+			copies.add(copy);
+		}
+		return new Polyline(copies, Arrays.copyOf(sequence, size), cellSize);
+	}
+
+	/**
+	 * Returns the control point at position pos
+	 * Control point pos is the initial point of line pos, and the last control point
+	 * is the final point of the last line
+	 * @param pos position of the control point
+	 * @return control point at position pos
+	 */
+	public Point getControlPoint(int pos) {
+		return vertices.get(sequence[pos]);
+	}
+
+	/**
+	 * Returns the positions where a point is used as a control point
+	 * @param pt point to search
+	 * @return positions of the point in the polyline (empty if it isn't in the polyline)
+	 */
+	public int[] getControlPointPositions(Point pt) {
+		buildIndex();
+		Integer index = vertexIndices.get(pt);
+		if (index == null)
+			return new int[0];
+		return occurrences.get(index.intValue()).toArray();
+	}
+
+	/**
+	 * Returns the number of distinct points of the polyline
+	 * @return number of distinct points
+	 */
+	public int getVertexCount() {
+		return vertices.size();
+	}
+
+	/**
+	 * Returns the distinct point with index i
+	 * @param i index of the point
+	 * @return the distinct point with index i
+	 */
+	public Point getVertex(int i) {
+		return vertices.get(i);
+	}
+
+	/**
+	 * Returns the index of the distinct point used as control point at position pos
+	 * @param pos position of the control point
+	 * @return index of the distinct point (see getVertex)
+	 */
+	public int getVertexIndex(int pos) {
+		return sequence[pos];
+	}
+
+	/**
+	 * Returns the number of blocks of control points
+	 * @return number of blocks
+	 */
+	public int getBlockCount() {
+		return (getControlPointCount() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+	}
+
+	/**
+	 * Returns the bounding box of a block of control points
+	 * Block b has the control points from b*BLOCK_SIZE to b*BLOCK_SIZE+BLOCK_SIZE+2, which are
+	 * all the points of the lines and curve segments that start in the block
+	 * @param block index of the block
+	 * @return bounding box of the block (must not be changed by the caller)
+	 */
+	public Rectangle getBlockBounds(int block) {
+		if (!validBlocks[block]) {
+			int first = block*BLOCK_SIZE;
+			int last = Math.min(first + BLOCK_SIZE + 2, size-1);
+			Point pt = getControlPoint(first);
+			int minX = pt.getX(), maxX = pt.getX(), minY = pt.getY(), maxY = pt.getY();
+			for (int i = first+1;i<=last;i++) {
+				pt = getControlPoint(i);
+				minX = Math.min(minX, pt.getX());
+				maxX = Math.max(maxX, pt.getX());
+				minY = Math.min(minY, pt.getY());
+				maxY = Math.max(maxY, pt.getY());
+			}
+			if (blockBounds[block] == null)
+				blockBounds[block] = new Rectangle();
+			blockBounds[block].setBounds(minX, minY, maxX-minX+1, maxY-minY+1);
+			validBlocks[block] = true;
+		}
+		return blockBounds[block];
+	}
+
+	/**
+	 * Returns the bounding box of all the control points
+	 * @return bounding box of the control points (a new rectangle); null if there are no lines
+	 */
+	public Rectangle getBounds() {
+		Rectangle bounds = null;
+		for (int b = 0;b<getBlockCount();b++) {
+			if (bounds == null)
+				bounds = new Rectangle(getBlockBounds(b));
+			else
+				bounds.add(getBlockBounds(b));
+		}
+		return bounds;
+	}
+
+	/**
+	 * Marks the bounding boxes of the blocks with the control point at position pos to be calculated again
+	 * @param pos position of the control point
+	 */
+	private void invalidateBlocks(int pos) {
+		// The point is in its block and in the previous one if it is one of its first 3 points
+		for (int b = Math.max(pos-3, 0) / BLOCK_SIZE;b<=pos / BLOCK_SIZE;b++)
+			validBlocks[b] = false;
+	}
+
 	/**
 	 * Calculates the Euclidian distance between two points
 	 * @param x1 initial x coordinate
@@ -56,7 +354,7 @@ public class Polyline {
 	private double euclideanDistance(int x1, int y1, int x2, int y2) {
 		return Math.sqrt( (x1-x2)*(x1-x2) + (y1-y2)*(y1-y2) );
 	}
-	
+
 	/**
 	 * Returns the line that has the point with coordinates x, y
 	 * @param x x coordinate of the desired point
@@ -65,52 +363,83 @@ public class Polyline {
 	 * @return line that has the point with coordinates x, y; null if there's no point
 	 */
 	public Line getLineWithPoint(int x, int y, int radius) {
-		boolean done = false;
-		Iterator<Line> it = lineList.iterator();
-		Line l = null;
-		int iptX, iptY, fptX, fptY;
-		// Iterate hover lines to get initial and final points of each line
-		while (it.hasNext() && !done) {
-			l = it.next();
-			iptX = l.getInitialPoint().getX();
-			iptY = l.getInitialPoint().getY();
-			fptX = l.getFinalPoint().getX();
-			fptY = l.getFinalPoint().getY();
-			done = (euclideanDistance(iptX, iptY, x, y) <= radius) || 
-			(euclideanDistance(fptX, fptY, x, y) <= radius);
-		}
-		if (done)
-			return l;
-		return null;
+		Point pt = getPointAt(x, y, radius);
+		if (pt == null)
+			return null;
+		// getPointAt built the index
+		int pos = occurrences.get(vertexIndices.get(pt).intValue()).get(0);
+		return getLineAt(pos < getLineCount() ? pos : pos-1);
 	}
-			
+
 	/**
-	 * Changes all the lines' points which are in the x, y neighborhood to be the point pt 
+	 * Returns the point closest to x, y in the x, y neighborhood
+	 * @param x x coordinate of the desired point
+	 * @param y y coordinate of the desired point
+	 * @param radius radius of the neighborhood
+	 * @return the closest point in the neighborhood; null if there's no point
+	 */
+	public Point getPointAt(int x, int y, int radius) {
+		buildIndex();
+		return grid.find(x, y, radius, null);
+	}
+
+	/**
+	 * Changes all the lines' points which are in the x, y neighborhood to be the point pt
 	 * @param x x coordinate of the point
 	 * @param y y coordinate of the point
 	 * @param radius radius of the neighborhood
 	 * @param pt the new point to be set
 	 */
 	public void changePointReference(int x, int y, int radius, Point pt) {
-		Iterator<Line> it = lineList.iterator();
-		Line l = null;
-		int iptX, iptY, fptX, fptY;
-		// Iterate hover lines to change initial or final point if it is in the point x,y neighborhood
-		while (it.hasNext()) {
-			l = it.next();
-			iptX = l.getInitialPoint().getX();
-			iptY = l.getInitialPoint().getY();
-			fptX = l.getFinalPoint().getX();
-			fptY = l.getFinalPoint().getY();
-			if (euclideanDistance(iptX, iptY, x, y) <= radius && l.getInitialPoint() != pt) {
-				 l.setInitialPoint(pt);
-			}
-			if (euclideanDistance(fptX, fptY, x, y) <= radius && l.getFinalPoint() != pt) {
-				l.setFinalPoint(pt);
-			}
+		buildIndex();
+		for (Point old : grid.findAll(x, y, radius)) {
+			if (old != pt)
+				mergeVertex(old, pt);
+		}
+	}
+
+	/**
+	 * Replaces every use of the point old by the point pt
+	 * Only the positions where old is used are changed
+	 * @param old point to replace
+	 * @param pt the new point
+	 */
+	private void mergeVertex(Point old, Point pt) {
+		int oldIndex = vertexIndices.remove(old).intValue();
+		grid.remove(old);
+		Positions oldPositions = occurrences.get(oldIndex);
+		for (int i = 0;i<oldPositions.size();i++)
+			invalidateBlocks(oldPositions.get(i));
+		Integer index = vertexIndices.get(pt);
+		if (index == null) {
+			// pt isn't in the polyline yet: it just takes the old point's place
+			vertices.set(oldIndex, pt);
+			vertexIndices.put(pt, Integer.valueOf(oldIndex));
+			grid.add(pt);
+			return;
+		}
+
+		Positions positions = occurrences.get(index.intValue());
+		for (int i = 0;i<oldPositions.size();i++) {
+			sequence[oldPositions.get(i)] = index.intValue();
+			positions.add(oldPositions.get(i));
 		}
+
+		// The last vertex takes the place of the removed one, so the indices stay contiguous
+		int last = vertices.size()-1;
+		if (oldIndex != last) {
+			Point lastPoint = vertices.get(last);
+			Positions lastPositions = occurrences.get(last);
+			for (int i = 0;i<lastPositions.size();i++)
+				sequence[lastPositions.get(i)] = oldIndex;
+			vertices.set(oldIndex, lastPoint);
+			occurrences.set(oldIndex, lastPositions);
+			vertexIndices.put(lastPoint, Integer.valueOf(oldIndex));
+		}
+		vertices.remove(last);
+		occurrences.remove(last);
 	}
-	
+
 	/**
 	 * Returns a neighbor of the point pt
 	 * @param pt point to use to search for neighbors
@@ -118,39 +447,17 @@ public class Polyline {
 	 * @return a point in neighborhood; null if there's no point
 	 */
 	public Point getNeighbor(Point pt, int radius) {
-		int x = pt.getX();
-		int y = pt.getY();
-		boolean found = false;
-		Iterator<Line> it = lineList.iterator();
-		Line l = null;
-		int iptX, iptY, fptX, fptY;
-		// Iterate hover lines to get the neighbor of point pt
-		while (it.hasNext() && !found) {
-			l = it.next();
-			iptX = l.getInitialPoint().getX();
-			iptY = l.getInitialPoint().getY();
-			fptX = l.getFinalPoint().getX();
-			fptY = l.getFinalPoint().getY();
-
-			found = (euclideanDistance(iptX, iptY, x, y) <= radius) && 
-			(pt != l.getInitialPoint());
-			if (found)
-				return l.getInitialPoint();
-			found = (euclideanDistance(fptX, fptY, x, y) <= radius) && 
-			(pt != l.getFinalPoint());
-			if (found)
-				return l.getFinalPoint();
-		}
-		return null;
+		buildIndex();
+		return grid.find(pt.getX(), pt.getY(), radius, pt);
 	}
-	
+
 	/**
 	 * Finishes the polyline
 	 */
 	public void finish() {
 		finished = true;
 	}
-	
+
 	/**
 	 * Checks if the polyline has point with coordinates x, y or in x, y neighborhood
 	 * @param x coordinate x to search
@@ -159,9 +466,9 @@ public class Polyline {
 	 * @return true if there's a point in neighborhood; false otherwise
 	 */
 	public boolean hasPoint(int x, int y, int radius) {
-		return getLineWithPoint(x, y, radius) != null;
+		return getPointAt(x, y, radius) != null;
 	}
-		
+
 	/**
 	 * Returns the point in line l which has coordinates x, y or is in x, y neighborhood
 	 * @param l line to use
@@ -174,12 +481,12 @@ public class Polyline {
 		int iptX, iptY;
 		iptX = l.getInitialPoint().getX();
 		iptY = l.getInitialPoint().getY();
-		
+
 		if (euclideanDistance(iptX, iptY, x, y) <= radius)
 			return l.getInitialPoint();
 		return l.getFinalPoint();
 	}
-	
+
 	/**
 	 * Returns if the polyline is finished
 	 * @return true if is finished; false otherwise
@@ -187,14 +494,48 @@ public class Polyline {
 	public boolean isFinished() {
 		return finished;
 	}
-	
+
 	/**
-	 * Returns the lines list of the polyline
-	 * @return lines list of the polyline
+	 * This class represents a growable list of positions of the sequence
 	 */
-	public List<Line> getLines() {
-		return lineList;
+	private static class Positions {
+		private int[] values = new int[2];
+		private int size = 0;
+
+		/**
+		 * Adds a position
+		 * @param pos position to add
+		 */
+		private void add(int pos) {
+			if (size == values.length)
+				values = Arrays.copyOf(values, size*2);
+			values[size++] = pos;
+		}
+
+		/**
+		 * Returns position i
+		 * @param i index of the position
+		 * @return position i
+		 */
+		private int get(int i) {
+			return values[i];
+		}
+
+		/**
+		 * Returns the number of positions
+		 * @return number of positions
+		 */
+		private int size() {
+			return size;
+		}
+
+		/**
+		 * Returns a copy of the positions
+		 * @return array with the positions
+		 */
+		private int[] toArray() {
+			return Arrays.copyOf(values, size);
+		}
 	}
-	
-	
+
 }
@@ -0,0 +1,220 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * This class represents an exporter of PostScript
+ * The drawing can be written with one of these encodings:
+ *   PLAIN: absolute coordinates in cm, with the moveto, lineto and curveto operators
+ *   COMPACT: coordinates in points with 2 decimals, relative to the current point (except
+ *            the first of each path), with the short procedures m, l and c
+ *   COMPRESSED: the COMPACT drawing compressed with Flate and encoded in ASCII85 (it needs
+ *            a PostScript level 3 printer)
+ */
+public class PostScriptExporter implements Exporter {
+
+	// Encodings of the drawing
+	public static final int PLAIN = 0;
+	public static final int COMPACT = 1;
+	public static final int COMPRESSED = 2;
+
+	private static final String COMMENT = "% Poligonal guia numa curva de Bzier\n/cm {28.35 mul} def\n";
+	// Procedures of the compact encoding (l and c are relative to the current point)
+	private static final String COMPACT_PROCEDURES = "/m {moveto} bind def\n/l {rlineto} bind def\n/c {rcurveto} bind def\n";
+	// Decodes the rest of the file (up to ~>) and runs it
+	private static final String DECODE = "currentfile /ASCII85Decode filter /FlateDecode filter cvx exec\n";
+	// Points in a cm
+	private static final double CM = 28.35;
+
+	private final OutputStream out;
+	private final int encoding;
+	private final DecimalWriter numbers = new DecimalWriter();
+	// Writer of the prolog and writer of the drawing (the same one if it isn't compressed)
+	private Writer text;
+	private Writer drawing;
+	// Streams of the compressed drawing
+	private Deflater deflater;
+	private DeflaterOutputStream flate;
+	private ASCII85OutputStream ascii85;
+	// Style of the current path
+	private PathStyle style;
+	// Current point of the compact encoding, in hundredths of points
+	private long currentX;
+	private long currentY;
+	private final long[] point = new long[2];
+
+	/**
+	 * Constructs a PostScript exporter with the PLAIN encoding
+	 * @param out stream where the PostScript is written
+	 */
+	public PostScriptExporter(OutputStream out) {
+		this(out, PLAIN);
+	}
+
+	/**
+	 * Constructs a PostScript exporter
+	 * @param out stream where the PostScript is written
+	 * @param encoding PLAIN, COMPACT or COMPRESSED
+	 */
+	public PostScriptExporter(OutputStream out, int encoding) {
+		this.out = out;
+		this.encoding = encoding;
+	}
+
+	/* (non-Javadoc)
+	 * @see Exporter#startDocument(double, double)
+	 */
+	public void startDocument(double width, double height) throws IOException {
+		text = DrawingExport.createWriter(out);
+		text.write("%!PS\n%%BoundingBox: 0 0 ");
+		text.write(Long.toString(Math.round(width)));
+		text.write(" ");
+		text.write(Long.toString(Math.round(height)));
+		text.write("\n");
+		text.write(COMMENT);
+		text.write("<< /PageSize [");
+		numbers.write(text, width);
+		numbers.write(text, height);
+		text.write("] >> setpagedevice\n");
+		if (encoding != PLAIN)
+			text.write(COMPACT_PROCEDURES);
+		if (encoding != COMPRESSED) {
+			drawing = text;
+			return;
+		}
+		text.write(DECODE);
+		text.flush();
+		ascii85 = new ASCII85OutputStream(out);
+		// The fastest level is several times faster than the default, for a slightly larger file
+		deflater = new Deflater(Deflater.BEST_SPEED);
+		flate = new DeflaterOutputStream(ascii85, deflater, DrawingExport.BUFFER_SIZE);
+		drawing = DrawingExport.createWriter(flate);
+	}
+
+	/**
+	 * Writes coordinates in cm
+	 * @param x x coordinate
+	 * @param y y coordinate
+	 * @throws IOException
+	 */
+	private void writeCoordinates(double x, double y) throws IOException {
+		drawing.write(Double.toString(x / CM));
+		drawing.write(" cm ");
+		drawing.write(Double.toString(y / CM));
+		drawing.write(" cm ");
+	}
+
+	/**
+	 * Writes a point of the compact encoding relative to the current point
+	 * @param x x coordinate
+	 * @param y y coordinate
+	 * @throws IOException
+	 */
+	private void writeRelative(double x, double y) throws IOException {
+		point[0] = DecimalWriter.round(x);
+		point[1] = DecimalWriter.round(y);
+		// The rounded points are subtracted, so the rounding errors don't add up
+		numbers.write(drawing, point[0] - currentX);
+		numbers.write(drawing, point[1] - currentY);
+	}
+
+	/* (non-Javadoc)
+	 * @see Exporter#startPath(PathStyle)
+	 */
+	public void startPath(PathStyle style) throws IOException {
+		this.style = style;
+		drawing.write("gsave\nnewpath\n");
+	}
+
+	/* (non-Javadoc)
+	 * @see Exporter#moveTo(double, double)
+	 */
+	public void moveTo(double x, double y) throws IOException {
+		if (encoding == PLAIN) {
+			writeCoordinates(x, y);
+			drawing.write("moveto\n");
+		} else {
+			currentX = DecimalWriter.round(x);
+			currentY = DecimalWriter.round(y);
+			numbers.write(drawing, currentX);
+			numbers.write(drawing, currentY);
+			drawing.write("m\n");
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see Exporter#lineTo(double, double)
+	 */
+	public void lineTo(double x, double y) throws IOException {
+		if (encoding == PLAIN) {
+			writeCoordinates(x, y);
+			drawing.write("lineto\n");
+		} else {
+			writeRelative(x, y);
+			drawing.write("l\n");
+			currentX = point[0];
+			currentY = point[1];
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see Exporter#curveTo(double, double, double, double, double, double)
+	 */
+	public void curveTo(double x1, double y1, double x2, double y2, double x3, double y3) throws IOException {
+		if (encoding == PLAIN) {
+			writeCoordinates(x1, y1);
+			writeCoordinates(x2, y2);
+			writeCoordinates(x3, y3);
+			drawing.write("curveto\n");
+		} else {
+			// Every control point is relative to the start of the curve
+			writeRelative(x1, y1);
+			writeRelative(x2, y2);
+			writeRelative(x3, y3);
+			drawing.write("c\n");
+			currentX = point[0];
+			currentY = point[1];
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see Exporter#endPath()
+	 */
+	public void endPath() throws IOException {
+		if (style.getDash() > 0) {
+			drawing.write("[ ");
+			numbers.write(drawing, style.getDash());
+			numbers.write(drawing, style.getDash());
+			drawing.write("] 0 setdash\n");
+		}
+		numbers.write(drawing, style.getWidth());
+		drawing.write("setlinewidth\n");
+		numbers.write(drawing, style.getRed());
+		numbers.write(drawing, style.getGreen());
+		numbers.write(drawing, style.getBlue());
+		drawing.write("setrgbcolor\nstroke\ngrestore\n");
+	}
+
+	/* (non-Javadoc)
+	 * @see Exporter#endDocument()
+	 */
+	public void endDocument() throws IOException {
+		drawing.write("showpage\n");
+		drawing.flush();
+		if (encoding != COMPRESSED)
+			return;
+		try {
+			flate.finish();
+			ascii85.finish();
+			ascii85.flush();
+		} finally {
+			deflater.end();
+		}
+		text.write("\n");
+		text.flush();
+	}
+}
@@ -0,0 +1,411 @@
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.Path2D;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * This class draws the parts of a polyline's drawing (convex hull, lines, crosses and curves)
+ * It doesn't depend on the panel, so it can also draw into images (e.g. without a display)
+ * Only the parts inside the clip of the graphic are drawn
+ * A renderer keeps the tessellated curve segments between drawings, so it must not be
+ * used by more than one thread at a time
+ */
+public class Renderer {
+
+	// Number points to be used when drawing a curve
+	public static final int N_POINTS = 20;
+	// Maximum distance (in pixels) between a curve and its drawn lines when tessellating adaptively
+	public static final double FLATNESS = 0.5;
+	// Width of the cross (mark of the point)
+	public static final int CROSS_WIDTH = 4;
+
+	// Tessellated segments of each curve family (only changed segments are tessellated again)
+	private final CurveCache bezierCache = new CurveCache(CubicBasis.BEZIER, N_POINTS, FLATNESS);
+	private final CurveCache bSplineCache = new CurveCache(CubicBasis.B_SPLINE, N_POINTS, FLATNESS);
+	private final CurveCache catmullRomCache = new CurveCache(CubicBasis.CATMULL_ROM, N_POINTS, FLATNESS);
+
+	// Reused paths so that each part is drawn with a single call per color
+	// (the segments of a curve family alternate between two colors)
+	private final Path2D.Float[] curvePaths = {new Path2D.Float(), new Path2D.Float()};
+	private final Path2D.Float linesPath = new Path2D.Float();
+	// Reused to hold the control points of the curve being drawn
+	private final List<Point> controlPoints = new ArrayList<Point>(4);
+	// Reused to hold the indices of the curve segments inside the area being drawn
+	private int[] visibleSegments = new int[0];
+
+	/**
+	 * Sets if the curves are tessellated adaptively (FLATNESS) instead of with N_POINTS points
+	 * @param adaptive true to tessellate adaptively; false otherwise
+	 */
+	public void setAdaptive(boolean adaptive) {
+		bezierCache.setAdaptive(adaptive);
+		bSplineCache.setAdaptive(adaptive);
+		catmullRomCache.setAdaptive(adaptive);
+	}
+
+	/**
+	 * Sets if the curves are drawn as Java2D cubic curves (curveTo) instead of tessellated lines
+	 * @param cubic true to draw cubic curves; false to draw tessellated lines
+	 */
+	public void setCubic(boolean cubic) {
+		bezierCache.setCubic(cubic);
+		bSplineCache.setCubic(cubic);
+		catmullRomCache.setCubic(cubic);
+	}
+
+	/**
+	 * Sets if many curve segments are tessellated in parallel
+	 * @param parallel true to tessellate in parallel; false otherwise
+	 */
+	public void setParallel(boolean parallel) {
+		bezierCache.setParallel(parallel);
+		bSplineCache.setParallel(parallel);
+		catmullRomCache.setParallel(parallel);
+	}
+
+	/**
+	 * Discards the tessellated segments of all the curves
+	 */
+	public void clearCaches() {
+		bezierCache.clear();
+		bSplineCache.clear();
+		catmullRomCache.clear();
+	}
+
+	/**
+	 * Draws a Convex Hull with the first 4 points of the polyline
+	 * @param g graphic in which the convex hull will be drawn
+	 * @param polyline polyline to draw
+	 */
+	public void drawConvexHull(Graphics2D g, Polyline polyline) {
+		g.setColor(new Color(0, 255, 255));
+		int xPoints[] = new int[3];
+		int yPoints[] = new int[3];
+		// Triangles (0, 1, 2), (0, 2, 3) and (0, 1, 3)
+		int[][] triangles = {{0, 1, 2}, {0, 2, 3}, {0, 1, 3}};
+		for (int[] triangle : triangles) {
+			for (int i = 0;i<3;i++) {
+				Point pt = polyline.getControlPoint(triangle[i]);
+				xPoints[i] = pt.getX();
+				yPoints[i] = pt.getY();
+			}
+			g.fillPolygon(xPoints, yPoints, 3);
+		}
+	}
+
+	/**
+	 * Draws the polyline's lines (the ones outside of the area being drawn are skipped)
+	 * @param g graphic in which the lines will be drawn
+	 * @param polyline polyline to draw
+	 */
+	public void drawPolyline(Graphics2D g, Polyline polyline) {
+		// Change color to be yellow
+		g.setColor(new Color(255, 255, 0));
+		Rectangle clip = g.getClipBounds();
+		// Consecutive lines are joined in the path, so it is only moved after a skipped line
+		boolean joined = false;
+		linesPath.reset();
+		for (int i = 0;i<polyline.getLineCount();i++) {
+			if (i % Polyline.BLOCK_SIZE == 0 && isBlockOutside(clip, polyline, i / Polyline.BLOCK_SIZE, false)) {
+				// Skips the lines of the block
+				i += Polyline.BLOCK_SIZE-1;
+				joined = false;
+				continue;
+			}
+			Point initialPoint = polyline.getControlPoint(i);
+			Point finalPoint = polyline.getControlPoint(i+1);
+			if (isOutside(clip, initialPoint, finalPoint, 1)) {
+				joined = false;
+				continue;
+			}
+			if (!joined)
+				linesPath.moveTo(initialPoint.getX(), initialPoint.getY());
+			linesPath.lineTo(finalPoint.getX(), finalPoint.getY());
+			joined = true;
+		}
+		g.draw(linesPath);
+	}
+
+	/**
+	 * Draws the crosses of the polyline's points (the ones outside of the area being drawn are skipped)
+	 * A point used by several control points (e.g. a closed polyline) only has one cross
+	 * @param g graphic in which the crosses will be drawn
+	 * @param polyline polyline to draw
+	 */
+	public void drawMarkers(Graphics2D g, Polyline polyline) {
+		Rectangle clip = g.getClipBounds();
+		linesPath.reset();
+		for (int i = 0;i<polyline.getVertexCount();i++) {
+			Point pt = polyline.getVertex(i);
+			if (isOutside(clip, pt, pt, CROSS_WIDTH+3))
+				continue;
+			appendCross(linesPath, pt);
+		}
+		// Change color to black
+		g.setColor(new Color(0, 0, 0));
+		g.draw(linesPath);
+	}
+
+	/**
+	 * Draws the Bezier Curves
+	 * @param g graphic in which the curves will be drawn
+	 * @param polyline polyline with the control points
+	 */
+	public void drawBezierCurves(Graphics2D g, Polyline polyline) {
+		Color[] colors = new Color[2];
+		colors[0] = new Color(255, 0, 0);
+		colors[1] = new Color(120, 0, 0);
+		// Bezier curve i uses the points 3i to 3i+3
+		drawCurves(g, polyline, bezierCache, getBezierCurveCount(polyline), 3, "B\u00E9zier curve", colors);
+	}
+
+	/**
+	 * Draws the B-Spline Curves
+	 * @param g graphic in which the curves will be drawn
+	 * @param polyline polyline with the control points
+	 */
+	public void drawBSplineCurves(Graphics2D g, Polyline polyline) {
+		Color[] colors = new Color[2];
+		colors[0] = new Color(0, 255, 0);
+		colors[1] = new Color(0, 120, 0);
+		// B-Spline curve i uses the points i to i+3
+		drawCurves(g, polyline, bSplineCache, getBSplineCurveCount(polyline), 1, "B-Spline curve", colors);
+	}
+
+	/**
+	 * Draws the Catmull-Rom Curves
+	 * @param g graphic in which the curves will be drawn
+	 * @param polyline polyline with the control points
+	 */
+	public void drawCatmullRomCurves(Graphics2D g, Polyline polyline) {
+		Color[] colors = new Color[2];
+		colors[0] = new Color(0, 0, 255);
+		colors[1] = new Color(0, 182, 220);
+		// Catmull-Rom curve i uses the points i to i+3
+		drawCurves(g, polyline, catmullRomCache, getCatmullRomCurveCount(polyline), 1, "Catmull-Rom curve", colors);
+	}
+
+	/**
+	 * Draws the curves of a curve family
+	 * Curve i uses the four control points starting at position i*step
+	 * @param g graphic in which the curves will be drawn
+	 * @param polyline polyline with the control points
+	 * @param cache cache of the curve family
+	 * @param nCurves number of curves
+	 * @param step number of control points between the first points of two consecutive curves
+	 * @param name name of the curve family (used in the trace)
+	 * @param colors colors of the even and odd curves
+	 */
+	private void drawCurves(Graphics2D g, Polyline polyline, CurveCache cache, int nCurves, int step, String name, Color[] colors) {
+		Rectangle clip = g.getClipBounds();
+		curvePaths[0].reset();
+		curvePaths[1].reset();
+		if (visibleSegments.length < nCurves)
+			visibleSegments = new int[nCurves];
+		int nVisible = 0;
+		for (int i = 0;i<nCurves;i++) {
+			int block = i*step / Polyline.BLOCK_SIZE;
+			if (isBlockOutside(clip, polyline, block, true)) {
+				// Skips to the first curve of the next block
+				i = ((block+1)*Polyline.BLOCK_SIZE + step-1) / step - 1;
+				continue;
+			}
+			// Segments outside of the area being drawn aren't tessellated
+			if (clip != null && !clip.intersects(getSegmentBounds(polyline, cache.getBasis(), i*step)))
+				continue;
+			visibleSegments[nVisible++] = i;
+		}
+		// The segments being drawn can be tessellated in parallel first, if many of them changed
+		cache.prepare(polyline, visibleSegments, nVisible, step);
+		for (int v = 0;v<nVisible;v++) {
+			int i = visibleSegments[v];
+			controlPoints.clear();
+			for (int k = 0;k<4;k++)
+				controlPoints.add(polyline.getControlPoint(i*step + k));
+			appendCurve(curvePaths[i % 2], clip, cache, i, controlPoints);
+			if (Trace.isEnabled())
+				Trace.curveSegment(name, i+1, controlPoints);
+		}
+		cache.trim(nCurves);
+		drawCurvePaths(g, colors);
+	}
+
+	/**
+	 * Adds a curve segment to the path of its color
+	 * @param path path where the segment will be added
+	 * @param clip area being drawn (segments outside of it are skipped); null to add every segment
+	 * @param cache cache of the curve family
+	 * @param index index of the segment in the curve
+	 * @param controlPoints the four control points of the segment
+	 */
+	private void appendCurve(Path2D path, Rectangle clip, CurveCache cache, int index, List<Point> controlPoints) {
+		if (cache.isCubic()) {
+			double[] b = cache.getBezierControlPoints(index, controlPoints);
+			if (clip != null && !clip.intersects(cache.getBounds(index)))
+				return;
+			path.moveTo(b[0], b[1]);
+			path.curveTo(b[2], b[3], b[4], b[5], b[6], b[7]);
+			return;
+		}
+		PointBuffer curvePoints = cache.getPoints(index, controlPoints);
+		if (clip != null && !clip.intersects(cache.getBounds(index)))
+			return;
+		int[] xs = curvePoints.getXs();
+		int[] ys = curvePoints.getYs();
+		int length = curvePoints.size();
+		path.moveTo(xs[0], ys[0]);
+		for (int k = 1;k<length;k++)
+			path.lineTo(xs[k], ys[k]);
+	}
+
+	/**
+	 * Draws the two paths of a curve family (even and odd segments)
+	 * @param g graphic in which the curves will be drawn
+	 * @param colors colors of the even and odd segments
+	 */
+	private void drawCurvePaths(Graphics2D g, Color[] colors) {
+		for (int k = 0;k<2;k++) {
+			g.setColor(colors[k]);
+			g.draw(curvePaths[k]);
+		}
+	}
+
+	/**
+	 * Adds the cross of a point (inside a box if it is a boxed point) to a path
+	 * @param path path where the cross will be added
+	 * @param pt point of the cross
+	 */
+	private void appendCross(Path2D path, Point pt) {
+		int xPos = pt.getX();
+		int yPos = pt.getY();
+		path.moveTo(xPos - CROSS_WIDTH, yPos - CROSS_WIDTH);
+		path.lineTo(xPos + CROSS_WIDTH, yPos + CROSS_WIDTH);
+		path.moveTo(xPos - CROSS_WIDTH, yPos + CROSS_WIDTH);
+		path.lineTo(xPos + CROSS_WIDTH, yPos - CROSS_WIDTH);
+		if (pt.isBoxedPoint()) {
+			int d = CROSS_WIDTH+2;
+			path.moveTo(xPos - d, yPos - d);
+			path.lineTo(xPos + d, yPos - d);
+			path.lineTo(xPos + d, yPos + d);
+			path.lineTo(xPos - d, yPos + d);
+			path.closePath();
+		}
+	}
+
+	/**
+	 * Returns the number of Bezier curves of a polyline
+	 * @param polyline polyline with the control points
+	 * @return number of Bezier curves
+	 */
+	public static int getBezierCurveCount(Polyline polyline) {
+		// Curve i uses the points 3i to 3i+3
+		int n = polyline.getControlPointCount();
+		return n < 4 ? 0 : (n - 1) / 3;
+	}
+
+	/**
+	 * Returns the number of B-Spline curves of a polyline
+	 * @param polyline polyline with the control points
+	 * @return number of B-Spline curves
+	 */
+	public static int getBSplineCurveCount(Polyline polyline) {
+		// Curve i uses the points i to i+3
+		int n = polyline.getControlPointCount();
+		return n < 4 ? 0 : n - 3;
+	}
+
+	/**
+	 * Returns the number of Catmull-Rom curves of a polyline
+	 * @param polyline polyline with the control points
+	 * @return number of Catmull-Rom curves
+	 */
+	public static int getCatmullRomCurveCount(Polyline polyline) {
+		// Curve i uses the points i to i+3
+		int n = polyline.getControlPointCount();
+		return n < 4 ? 0 : n - 3;
+	}
+
+	/**
+	 * Returns a bounding box of a curve segment (the bounding box of its Bezier control
+	 * points, which always contains the segment)
+	 * @param polyline polyline with the control points
+	 * @param basis basis of the curve
+	 * @param first position of the first control point of the segment
+	 * @return bounding box of the segment
+	 */
+	public static Rectangle getSegmentBounds(Polyline polyline, CubicBasis basis, int first) {
+		Point p0, p1, p2, p3;
+		p0 = polyline.getControlPoint(first);
+		p1 = polyline.getControlPoint(first+1);
+		p2 = polyline.getControlPoint(first+2);
+		p3 = polyline.getControlPoint(first+3);
+		double[] bx = basis.getBezierControlPoints(p0.getX(), p1.getX(), p2.getX(), p3.getX());
+		double[] by = basis.getBezierControlPoints(p0.getY(), p1.getY(), p2.getY(), p3.getY());
+		double minX = bx[0], maxX = bx[0], minY = by[0], maxY = by[0];
+		for (int k = 1;k<4;k++) {
+			minX = Math.min(minX, bx[k]);
+			maxX = Math.max(maxX, bx[k]);
+			minY = Math.min(minY, by[k]);
+			maxY = Math.max(maxY, by[k]);
+		}
+		int x = (int)Math.floor(minX);
+		int y = (int)Math.floor(minY);
+		return new Rectangle(x, y, (int)Math.ceil(maxX)-x+1, (int)Math.ceil(maxY)-y+1);
+	}
+
+	/**
+	 * Returns the area where a polyline and its curves are drawn
+	 * @param polyline polyline to draw
+	 * @return area of the drawing; null if the polyline has no lines
+	 */
+	public static Rectangle getDrawingBounds(Polyline polyline) {
+		Rectangle bounds = polyline.getBounds();
+		if (bounds == null)
+			return null;
+		// Crosses, and Catmull-Rom curves, go outside of the control points
+		bounds.grow(CROSS_WIDTH+3 + bounds.width / 6, CROSS_WIDTH+3 + bounds.height / 6);
+		return bounds;
+	}
+
+	/**
+	 * Returns if a line (and anything drawn up to margin pixels around it) is outside of an area
+	 * @param clip area being drawn (null if everything is drawn)
+	 * @param initialPoint line's initial point
+	 * @param finalPoint line's final point
+	 * @param margin number of pixels around the line that are also drawn
+	 * @return true if the line is outside of the area; false otherwise
+	 */
+	private static boolean isOutside(Rectangle clip, Point initialPoint, Point finalPoint, int margin) {
+		if (clip == null)
+			return false;
+		int x1 = initialPoint.getX(), y1 = initialPoint.getY();
+		int x2 = finalPoint.getX(), y2 = finalPoint.getY();
+		return !clip.intersects(Math.min(x1, x2) - margin, Math.min(y1, y2) - margin,
+				Math.abs(x1-x2) + 2*margin + 1, Math.abs(y1-y2) + 2*margin + 1);
+	}
+
+	/**
+	 * Returns if a block of control points (and anything drawn from it) is outside of an area
+	 * @param clip area being drawn (null if everything is drawn)
+	 * @param polyline polyline with the control points
+	 * @param block index of the block
+	 * @param curves true if the curves of the block are drawn (a Catmull-Rom curve may go
+	 * outside of its control points, by up to a sixth of their width and height)
+	 * @return true if the block is outside of the area; false otherwise
+	 */
+	private static boolean isBlockOutside(Rectangle clip, Polyline polyline, int block, boolean curves) {
+		if (clip == null)
+			return false;
+		Rectangle bounds = polyline.getBlockBounds(block);
+		int dx = CROSS_WIDTH+3, dy = CROSS_WIDTH+3;
+		if (curves) {
+			dx += bounds.width / 6;
+			dy += bounds.height / 6;
+		}
+		return !clip.intersects(bounds.x - dx, bounds.y - dy, bounds.width + 2*dx, bounds.height + 2*dy);
+	}
+}
@@ -0,0 +1,125 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * This class represents an exporter of SVG
+ * Each path is an SVG path element, with its points in points with 2 decimals (SVG has the
+ * origin at the top left corner, so the y coordinates are flipped)
+ */
+public class SVGExporter implements Exporter {
+
+	private final OutputStream out;
+	private final DecimalWriter numbers = new DecimalWriter();
+	private Writer text;
+	// Height of the page (to flip the y coordinates)
+	private double height;
+
+	/**
+	 * Constructs an SVG exporter
+	 * @param out stream where the SVG is written
+	 */
+	public SVGExporter(OutputStream out) {
+		this.out = out;
+	}
+
+	/**
+	 * Writes the coordinates of a point
+	 * @param x x coordinate
+	 * @param y y coordinate
+	 * @throws IOException
+	 */
+	private void writePoint(double x, double y) throws IOException {
+		numbers.write(text, x);
+		numbers.write(text, height-y);
+	}
+
+	/**
+	 * Writes a color component as an integer from 0 to 255
+	 * @param component color component (0 to 1)
+	 * @throws IOException
+	 */
+	private void writeComponent(double component) throws IOException {
+		text.write(Long.toString(Math.round(255*component)));
+	}
+
+	/* (non-Javadoc)
+	 * @see Exporter#startDocument(double, double)
+	 */
+	public void startDocument(double width, double height) throws IOException {
+		this.height = height;
+		text = DrawingExport.createWriter(out);
+		text.write("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>\n");
+		text.write("<svg xmlns=\"http://www.w3.org/2000/svg\" version=\"1.1\" width=\"");
+		numbers.writeValue(text, width);
+		text.write("pt\" height=\"");
+		numbers.writeValue(text, height);
+		text.write("pt\" viewBox=\"0 0 ");
+		numbers.write(text, width);
+		numbers.writeValue(text, height);
+		text.write("\">\n");
+	}
+
+	/* (non-Javadoc)
+	 * @see Exporter#startPath(PathStyle)
+	 */
+	public void startPath(PathStyle style) throws IOException {
+		text.write("<path fill=\"none\" stroke=\"rgb(");
+		writeComponent(style.getRed());
+		text.write(",");
+		writeComponent(style.getGreen());
+		text.write(",");
+		writeComponent(style.getBlue());
+		text.write(")\" stroke-width=\"");
+		numbers.writeValue(text, style.getWidth());
+		if (style.getDash() > 0) {
+			text.write("\" stroke-dasharray=\"");
+			numbers.write(text, style.getDash());
+			numbers.writeValue(text, style.getDash());
+		}
+		text.write("\" d=\"");
+	}
+
+	/* (non-Javadoc)
+	 * @see Exporter#moveTo(double, double)
+	 */
+	public void moveTo(double x, double y) throws IOException {
+		text.write("M ");
+		writePoint(x, y);
+	}
+
+	/* (non-Javadoc)
+	 * @see Exporter#lineTo(double, double)
+	 */
+	public void lineTo(double x, double y) throws IOException {
+		text.write("L ");
+		writePoint(x, y);
+	}
+
+	/* (non-Javadoc)
+	 * @see Exporter#curveTo(double, double, double, double, double, double)
+	 */
+	public void curveTo(double x1, double y1, double x2, double y2, double x3, double y3) throws IOException {
+		text.write("C ");
+		writePoint(x1, y1);
+		writePoint(x2, y2);
+		writePoint(x3, y3);
+	}
+
+	/* (non-Javadoc)
+	 * @see Exporter#endPath()
+	 */
+	public void endPath() throws IOException {
+		text.write("\"/>\n");
+	}
+
+	/* (non-Javadoc)
+	 * @see Exporter#endDocument()
+	 */
+	public void endDocument() throws IOException {
+		text.write("</svg>\n");
+		text.flush();
+	}
+}
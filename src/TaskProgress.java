@@ -0,0 +1,17 @@
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * This interface represents the receiver of the progress of a long task (e.g. reading or
+ * writing a file), which can also cancel it
+ * It is called by the thread running the task
+ */
+public interface TaskProgress {
+
+	/**
+	 * Reports the progress of the task
+	 * @param done amount of work done
+	 * @param total total amount of work
+	 * @return true to continue the task; false to cancel it
+	 */
+	boolean update(long done, long total);
+}
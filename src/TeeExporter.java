@@ -0,0 +1,78 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * This class represents an exporter that sends the drawing to several exporters, so a
+ * single walk of the polyline writes the drawing in several formats
+ */
+public class TeeExporter implements Exporter {
+
+	private final List<Exporter> exporters;
+
+	/**
+	 * Constructs a tee of exporters
+	 * @param exporters exporters that receive the drawing
+	 */
+	public TeeExporter(List<Exporter> exporters) {
+		this.exporters = new ArrayList<Exporter>(exporters);
+	}
+
+	/* (non-Javadoc)
+	 * @see Exporter#startDocument(double, double)
+	 */
+	public void startDocument(double width, double height) throws IOException {
+		for (Exporter exporter : exporters)
+			exporter.startDocument(width, height);
+	}
+
+	/* (non-Javadoc)
+	 * @see Exporter#startPath(PathStyle)
+	 */
+	public void startPath(PathStyle style) throws IOException {
+		for (Exporter exporter : exporters)
+			exporter.startPath(style);
+	}
+
+	/* (non-Javadoc)
+	 * @see Exporter#moveTo(double, double)
+	 */
+	public void moveTo(double x, double y) throws IOException {
+		for (Exporter exporter : exporters)
+			exporter.moveTo(x, y);
+	}
+
+	/* (non-Javadoc)
+	 * @see Exporter#lineTo(double, double)
+	 */
+	public void lineTo(double x, double y) throws IOException {
+		for (Exporter exporter : exporters)
+			exporter.lineTo(x, y);
+	}
+
+	/* (non-Javadoc)
+	 * @see Exporter#curveTo(double, double, double, double, double, double)
+	 */
+	public void curveTo(double x1, double y1, double x2, double y2, double x3, double y3) throws IOException {
+		for (Exporter exporter : exporters)
+			exporter.curveTo(x1, y1, x2, y2, x3, y3);
+	}
+
+	/* (non-Javadoc)
+	 * @see Exporter#endPath()
+	 */
+	public void endPath() throws IOException {
+		for (Exporter exporter : exporters)
+			exporter.endPath();
+	}
+
+	/* (non-Javadoc)
+	 * @see Exporter#endDocument()
+	 */
+	public void endDocument() throws IOException {
+		for (Exporter exporter : exporters)
+			exporter.endDocument();
+	}
+}
@@ -0,0 +1,222 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Alexandre Martins Garcia, 34625 G23 P5
+ *
+ * This class is the diagnostics trace of the application (e.g. the control points of
+ * every drawn curve). It is disabled by default; when enabled, events are stored in a
+ * bounded buffer and written by a background thread, so the caller never waits for the
+ * output. Events are dropped (and counted) if the buffer is full
+ *
+ * It is enabled with the system property curves.trace=true and written to the standard
+ * output, or to the file given by the system property curves.trace.file
+ */
+public final class Trace {
+
+	// Maximum number of events waiting to be written
+	private static final int CAPACITY = 4096;
+
+	private static volatile boolean enabled = false;
+	private static BlockingQueue<Event> events;
+	private static Writer writer;
+	// If the writer was opened by the trace (and so it's closed when the trace stops)
+	private static boolean ownsWriter;
+	private static Thread drainer;
+	private static final AtomicLong dropped = new AtomicLong();
+	private static boolean shutdownHookAdded = false;
+
+	static {
+		String file = System.getProperty("curves.trace.file");
+		if (file != null) {
+			try {
+				start(new FileWriter(file), true);
+			} catch (IOException e) {
+				System.err.println("Could not open trace file " + file + ": " + e.getMessage());
+			}
+		} else if (Boolean.getBoolean("curves.trace")) {
+			start(new OutputStreamWriter(System.out), false);
+		}
+	}
+
+	/**
+	 * This class only has static methods
+	 */
+	private Trace() {
+	}
+
+	/**
+	 * Returns if the trace is enabled
+	 * Callers should check it before building an event
+	 * @return true if the trace is enabled; false otherwise
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Enables the trace, writing the events to out. Does nothing if the trace is already enabled
+	 * The writer is flushed, but not closed, when the trace stops
+	 * @param out where the events will be written
+	 */
+	public static void start(Writer out) {
+		start(out, false);
+	}
+
+	/**
+	 * Enables the trace, writing the events to out. Does nothing if the trace is already enabled
+	 * @param out where the events will be written
+	 * @param owned if out was opened by the trace, so it's closed when the trace stops
+	 */
+	private static synchronized void start(Writer out, boolean owned) {
+		if (enabled)
+			return;
+		events = new ArrayBlockingQueue<Event>(CAPACITY);
+		writer = new BufferedWriter(out);
+		ownsWriter = owned;
+		drainer = new Thread(new Runnable() {
+			public void run() {
+				drain();
+			}
+		}, "Trace writer");
+		drainer.setDaemon(true);
+		drainer.start();
+		enabled = true;
+
+		// The events still in the buffer are written when the application exits
+		if (!shutdownHookAdded) {
+			Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+				public void run() {
+					stop();
+				}
+			}));
+			shutdownHookAdded = true;
+		}
+	}
+
+	/**
+	 * Disables the trace. The events still in the buffer are written before it returns
+	 */
+	public static synchronized void stop() {
+		if (!enabled)
+			return;
+		enabled = false;
+		drainer.interrupt();
+		try {
+			drainer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Returns the number of events dropped because the buffer was full
+	 * @return number of dropped events
+	 */
+	public static long getDroppedEvents() {
+		return dropped.get();
+	}
+
+	/**
+	 * Traces the control points of a curve segment
+	 * @param curve name of the curve family
+	 * @param index index of the segment (starting at 1)
+	 * @param controlPoints control points of the segment
+	 */
+	public static void curveSegment(String curve, int index, List<Point> controlPoints) {
+		if (!enabled)
+			return;
+		int[] coordinates = new int[controlPoints.size()*2];
+		for (int k = 0;k<controlPoints.size();k++) {
+			coordinates[2*k] = controlPoints.get(k).getX();
+			coordinates[2*k+1] = controlPoints.get(k).getY();
+		}
+		offer(new Event(curve, index, coordinates));
+	}
+
+	/**
+	 * Adds an event to the buffer without waiting
+	 * @param event event to add
+	 */
+	private static void offer(Event event) {
+		BlockingQueue<Event> queue = events;
+		if (queue != null && !queue.offer(event))
+			dropped.incrementAndGet();
+	}
+
+	/**
+	 * Writes the events of the buffer until the trace is stopped
+	 * The output is flushed whenever the buffer becomes empty
+	 */
+	private static void drain() {
+		try {
+			while (enabled || !events.isEmpty()) {
+				Event event;
+				try {
+					event = events.poll(1, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					// Stopped: write what is left in the buffer
+					event = events.poll();
+				}
+				if (event != null)
+					event.write(writer);
+				if (events.isEmpty())
+					writer.flush();
+			}
+			// The standard output (or a writer of the caller) must stay open
+			if (ownsWriter)
+				writer.close();
+			else
+				writer.flush();
+		} catch (IOException e) {
+			enabled = false;
+			System.err.println("Could not write the trace: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * This class represents a trace event
+	 * It only keeps the values; the text is created by the writer thread
+	 */
+	private static class Event {
+		private final long time;
+		private final String name;
+		private final int index;
+		private final int[] coordinates;
+
+		/**
+		 * Constructs an event
+		 * @param name name of the event
+		 * @param index index of the traced element
+		 * @param coordinates x, y pairs of the traced points
+		 */
+		private Event(String name, int index, int[] coordinates) {
+			this.time = System.currentTimeMillis();
+			this.name = name;
+			this.index = index;
+			this.coordinates = coordinates;
+		}
+
+		/**
+		 * Writes the event as a line of text
+		 * @param out where the event will be written
+		 * @throws IOException
+		 */
+		private void write(Writer out) throws IOException {
+			StringBuilder line = new StringBuilder();
+			line.append(time).append(' ').append(name).append(' ').append(index).append(": [");
+			for (int k = 0;k<coordinates.length;k += 2)
+				line.append('(').append(coordinates[k]).append(", ").append(coordinates[k+1]).append(')');
+			line.append("]\n");
+			out.write(line.toString());
+		}
+	}
+}